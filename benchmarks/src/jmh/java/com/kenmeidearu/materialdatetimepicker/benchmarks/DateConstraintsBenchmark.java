@@ -0,0 +1,105 @@
+package com.kenmeidearu.materialdatetimepicker.benchmarks;
+
+import com.kenmeidearu.materialdatetimepicker.date.DateConstraints;
+import com.kenmeidearu.materialdatetimepicker.date.EpochDayIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Random;
+
+/**
+ * The lookups a month view makes for every cell it draws, and the rounding of the selection,
+ * with disabled and highlighted indexes of increasing size. The years span about 219000 days,
+ * so even the largest index fits into the probed range with distinct days.
+ */
+@State(Scope.Thread)
+public class DateConstraintsBenchmark {
+    private static final int MIN_YEAR = 1800;
+    private static final int MAX_YEAR = 2399;
+    private static final int PROBES = 4096;
+
+    @Param({"0", "100", "10000", "100000"})
+    public int entries;
+
+    private DateConstraints mConstraints;
+    private int[] mYears;
+    private int[] mMonths;
+    private int[] mDays;
+    private int[] mEpochDays;
+    private int mProbe;
+    private Calendar mScratch;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        final int first = EpochDayIndex.toEpochDay(MIN_YEAR, Calendar.JANUARY, 1);
+        final int span = EpochDayIndex.toEpochDay(MAX_YEAR, Calendar.DECEMBER, 31) - first + 1;
+
+        mConstraints = new DateConstraints(MIN_YEAR, MAX_YEAR);
+        if (entries > span) throw new IllegalStateException(entries + " entries do not fit into " + span + " days");
+        if (entries > 0) {
+            // Every entry is a distinct day the probes can hit, 100000 entries take about 46% of the days
+            mConstraints.setDisabledIndex(EpochDayIndex.of(randomDays(random, first, span)));
+            mConstraints.setHighlightedIndex(EpochDayIndex.of(randomDays(random, first, span)));
+        }
+
+        mScratch = Calendar.getInstance();
+        mYears = new int[PROBES];
+        mMonths = new int[PROBES];
+        mDays = new int[PROBES];
+        mEpochDays = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            mEpochDays[i] = first + random.nextInt(span);
+            EpochDayIndex.toCalendar(mEpochDays[i], mScratch);
+            mYears[i] = mScratch.get(Calendar.YEAR);
+            mMonths[i] = mScratch.get(Calendar.MONTH);
+            mDays[i] = mScratch.get(Calendar.DAY_OF_MONTH);
+        }
+    }
+
+    /**
+     * @return distinct days in [first, first + span), drawn by a partial Fisher-Yates shuffle
+     */
+    private int[] randomDays(Random random, int first, int span) {
+        int[] days = new int[span];
+        for (int i = 0; i < span; i++) days[i] = first + i;
+        for (int i = 0; i < entries; i++) {
+            final int j = i + random.nextInt(span - i);
+            final int day = days[j];
+            days[j] = days[i];
+            days[i] = day;
+        }
+        return Arrays.copyOf(days, entries);
+    }
+
+    private int nextProbe() {
+        mProbe = (mProbe + 1) & (PROBES - 1);
+        return mProbe;
+    }
+
+    @Benchmark
+    public boolean isOutOfRange() {
+        final int i = nextProbe();
+        return mConstraints.isOutOfRange(mYears[i], mMonths[i], mDays[i]);
+    }
+
+    @Benchmark
+    public boolean isHighlighted() {
+        final int i = nextProbe();
+        return mConstraints.isHighlighted(mYears[i], mMonths[i], mDays[i]);
+    }
+
+    /**
+     * What DatePickerDialog.setToNearestDate does for the initial selection
+     */
+    @Benchmark
+    public int nearestValidDay() {
+        return mConstraints.nearestValidDay(mEpochDays[nextProbe()], mScratch);
+    }
+}
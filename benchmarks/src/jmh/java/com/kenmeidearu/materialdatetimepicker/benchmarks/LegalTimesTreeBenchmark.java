@@ -0,0 +1,72 @@
+package com.kenmeidearu.materialdatetimepicker.benchmarks;
+
+import com.kenmeidearu.materialdatetimepicker.time.LegalTimesTree;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The validation TimePickerDialog runs for every key typed in keyboard mode
+ */
+@State(Scope.Thread)
+public class LegalTimesTreeBenchmark {
+    // The key codes android.view.KeyEvent uses for 0-9, A and P
+    private static final int[] DIGIT_KEYS = {7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+    private static final int AM_KEY = 29;
+    private static final int PM_KEY = 44;
+
+    @Param({"true", "false"})
+    public boolean is24HourMode;
+
+    private LegalTimesTree mTree;
+    private List<List<Integer>> mTypedTimes;
+    private int mProbe;
+
+    @Setup
+    public void setUp() {
+        mTree = createTree();
+        mTypedTimes = new ArrayList<>();
+        // Legal and illegal inputs of every length, e.g. 1, 12, 125, 1259, 125959 and 1259p
+        mTypedTimes.add(keys(1));
+        mTypedTimes.add(keys(1, 2));
+        mTypedTimes.add(keys(1, 2, 5));
+        mTypedTimes.add(keys(1, 2, 5, 9));
+        mTypedTimes.add(keys(1, 2, 5, 9, 5, 9));
+        mTypedTimes.add(keys(2, 3, 7));
+        mTypedTimes.add(keys(9, 5, 9));
+        List<Integer> pm = keys(1, 2, 5, 9);
+        pm.add(PM_KEY);
+        mTypedTimes.add(pm);
+    }
+
+    private LegalTimesTree createTree() {
+        return new LegalTimesTree(is24HourMode, true, true, DIGIT_KEYS, AM_KEY, PM_KEY);
+    }
+
+    private static List<Integer> keys(int... digits) {
+        Integer[] keys = new Integer[digits.length];
+        for (int i = 0; i < digits.length; i++) keys[i] = DIGIT_KEYS[digits[i]];
+        return new ArrayList<>(Arrays.asList(keys));
+    }
+
+    @Benchmark
+    public boolean isLegalSoFar() {
+        mProbe = (mProbe + 1) % mTypedTimes.size();
+        return mTree.isLegalSoFar(mTypedTimes.get(mProbe));
+    }
+
+    /**
+     * Done whenever the dialog is created or the view is recreated
+     */
+    @Benchmark
+    public LegalTimesTree build() {
+        return createTree();
+    }
+}
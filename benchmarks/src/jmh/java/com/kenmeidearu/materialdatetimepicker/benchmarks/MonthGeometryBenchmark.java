@@ -0,0 +1,41 @@
+package com.kenmeidearu.materialdatetimepicker.benchmarks;
+
+import com.kenmeidearu.materialdatetimepicker.date.EpochDayIndex;
+import com.kenmeidearu.materialdatetimepicker.date.MonthGeometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Calendar;
+
+/**
+ * The layout every month view computes when it is bound, for all months of the default year
+ * range of DatePickerDialog
+ */
+@State(Scope.Thread)
+public class MonthGeometryBenchmark {
+    private static final int MIN_YEAR = 1900;
+    private static final int MAX_YEAR = 2100;
+    private static final int DAYS_IN_WEEK = 7;
+
+    /**
+     * @return the total number of week rows, so nothing is optimized away
+     */
+    @Benchmark
+    public int fullYearRange() {
+        int rows = 0;
+        for (int year = MIN_YEAR; year <= MAX_YEAR; year++) {
+            for (int month = Calendar.JANUARY; month <= Calendar.DECEMBER; month++) {
+                final int firstDay = EpochDayIndex.toEpochDay(year, month, 1);
+                // 1970-01-01 was a Thursday
+                final int dayOfWeek = ((firstDay + 4) % DAYS_IN_WEEK + DAYS_IN_WEEK) % DAYS_IN_WEEK
+                        + Calendar.SUNDAY;
+                final int offset = MonthGeometry.findDayOffset(dayOfWeek, Calendar.MONDAY, DAYS_IN_WEEK);
+                rows += MonthGeometry.calculateNumRows(offset,
+                        EpochDayIndex.daysInMonth(year, month), DAYS_IN_WEEK);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,87 @@
+package com.kenmeidearu.materialdatetimepicker.benchmarks;
+
+import com.kenmeidearu.materialdatetimepicker.time.TimeConstraints;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * The lookups the clock makes for every label it draws and every position it is dragged to,
+ * with the selectable times TimePickerDialog.setTimeInterval(1, 1, 1) sets: every second of the day.
+ */
+@State(Scope.Thread)
+public class TimeConstraintsBenchmark {
+    private static final int PROBES = 4096;
+
+    private TimeConstraints mConstraints;
+    private int[] mTimes;
+    private int[] mQuarterMinutes;
+    private int mProbe;
+
+    @Setup
+    public void setUp() {
+        mConstraints = new TimeConstraints();
+        mConstraints.setTimeInterval(1, 1, 1);
+
+        mQuarterMinutes = new int[TimeConstraints.SECONDS_PER_DAY / 15];
+        for (int i = 0; i < mQuarterMinutes.length; i++) mQuarterMinutes[i] = i * 15;
+
+        final Random random = new Random(42);
+        mTimes = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) mTimes[i] = random.nextInt(TimeConstraints.SECONDS_PER_DAY);
+    }
+
+    private int nextTime() {
+        mProbe = (mProbe + 1) & (PROBES - 1);
+        return mTimes[mProbe];
+    }
+
+    @Benchmark
+    public boolean isOutOfRange() {
+        return mConstraints.isOutOfRange(nextTime());
+    }
+
+    @Benchmark
+    public boolean isOutOfRangeHour() {
+        return mConstraints.isOutOfRange(nextTime(), TimeConstraints.HOUR_INDEX);
+    }
+
+    @Benchmark
+    public boolean isOutOfRangeMinute() {
+        return mConstraints.isOutOfRange(nextTime(), TimeConstraints.MINUTE_INDEX);
+    }
+
+    @Benchmark
+    public int roundToNearest() {
+        return mConstraints.roundToNearest(nextTime(), TimeConstraints.HOUR_INDEX);
+    }
+
+    @Benchmark
+    public int roundToNearestSecond() {
+        return mConstraints.roundToNearest(nextTime(), TimeConstraints.SECOND_INDEX);
+    }
+
+    /**
+     * The cost of compiling the selectable times of setTimeInterval(1, 1, 1)
+     */
+    @Benchmark
+    public TimeConstraints setTimeInterval() {
+        TimeConstraints constraints = new TimeConstraints();
+        constraints.setTimeInterval(1, 1, 1);
+        return constraints;
+    }
+
+    /**
+     * The cost of compiling an explicit list of selectable times, every 15 seconds
+     */
+    @Benchmark
+    public TimeConstraints setSelectableTimes() {
+        TimeConstraints constraints = new TimeConstraints();
+        constraints.setSelectableTimes(mQuarterMinutes);
+        return constraints;
+    }
+}
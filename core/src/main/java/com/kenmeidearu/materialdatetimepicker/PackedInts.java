@@ -0,0 +1,113 @@
+package com.kenmeidearu.materialdatetimepicker;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Compact encoding of sorted int arrays for saving constraints in a Bundle.
+ * Values are stored as a varint count, the zigzag varint of the first value and the
+ * varint gaps between consecutive values, so dense sets like consecutive days cost
+ * about one byte per value instead of a whole serialized object.
+ */
+public final class PackedInts {
+    private PackedInts() {
+    }
+
+    /**
+     * @param values non-decreasing values
+     * @return the packed values, or null if values is null
+     */
+    public static byte[] pack(int[] values) {
+        if (values == null) return null;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(values.length + 8);
+        writeVarint(out, values.length);
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0) {
+                writeVarint(out, (values[0] << 1) ^ (values[0] >> 31));
+            } else {
+                long gap = (long) values[i] - values[i - 1];
+                if (gap < 0) throw new IllegalArgumentException("Values must be sorted");
+                writeVarint(out, gap);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param packed values packed by {@link #pack(int[])}
+     * @return the values, or null if packed is null
+     */
+    public static int[] unpack(byte[] packed) {
+        if (packed == null) return null;
+        int[] position = new int[1];
+        int[] values = new int[(int) readVarint(packed, position)];
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0) {
+                int zigzag = (int) readVarint(packed, position);
+                values[0] = (zigzag >>> 1) ^ -(zigzag & 1);
+            } else {
+                values[i] = (int) (values[i - 1] + readVarint(packed, position));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Collapses runs of consecutive values into inclusive [start, end] pairs, e.g. the seconds of
+     * a day selected by a time interval become a handful of pairs instead of 86,400 values.
+     * @param values non-decreasing values, duplicates are allowed
+     * @return the start and end of every run, or null if values is null
+     */
+    public static int[] toRuns(int[] values) {
+        if (values == null) return null;
+        int[] runs = new int[values.length * 2];
+        int size = 0;
+        for (int value : values) {
+            if (size > 0 && (long) value <= (long) runs[size - 1] + 1) {
+                runs[size - 1] = value;
+            } else {
+                runs[size++] = value;
+                runs[size++] = value;
+            }
+        }
+        return Arrays.copyOf(runs, size);
+    }
+
+    /**
+     * @param runs inclusive [start, end] pairs as returned by {@link #toRuns(int[])}
+     * @return every value covered by the runs, or null if runs is null
+     */
+    public static int[] fromRuns(int[] runs) {
+        if (runs == null) return null;
+        int count = 0;
+        for (int i = 0; i < runs.length; i += 2) count += runs[i + 1] - runs[i] + 1;
+        int[] values = new int[count];
+        int size = 0;
+        for (int i = 0; i < runs.length; i += 2) {
+            for (int value = runs[i]; value <= runs[i + 1]; value++) values[size++] = value;
+        }
+        return values;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        // Treat ints as unsigned so negative zigzag results still fit in five bytes
+        value &= 0xFFFFFFFFL;
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] in, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,283 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+import java.util.Calendar;
+
+/**
+ * The selection constraints of a date picker, compiled to epoch days: the min and max date,
+ * the year range, the highlighted, selectable and disabled days, ranges and rules.
+ *
+ * Membership tests are logarithmic in the number of constraints, and the search for the
+ * nearest valid day skips whole runs of invalid days with a single lookup. Contains no Android
+ * code, so it can be tested and profiled on a plain JVM. Not thread-safe.
+ */
+public class DateConstraints {
+    // Rules can only be evaluated day by day, give up after about 10 years of rejected days
+    public static final int MAX_RULE_STEPS = 3660;
+
+    private int mMinDay = Integer.MIN_VALUE;
+    private int mMaxDay = Integer.MAX_VALUE;
+    private int mMinYear;
+    private int mMaxYear;
+    private EpochDayIndex mHighlightedIndex;
+    private EpochDayIndex mSelectableIndex;
+    private EpochDayIndex mDisabledIndex;
+    private EpochDayRanges mSelectableRanges;
+    private EpochDayRanges mDisabledRanges;
+    private DateRule mHighlightedRule;
+    private DateRule mSelectableRule;
+    private DateRule mDisabledRule;
+
+    /**
+     * @param minYear The first year, used when there is no min date
+     * @param maxYear The last year, used when there is no max date
+     */
+    public DateConstraints(int minYear, int maxYear) {
+        setYearRange(minYear, maxYear);
+    }
+
+    public void setYearRange(int minYear, int maxYear) {
+        if (maxYear < minYear) {
+            throw new IllegalArgumentException("Year end must be larger than or equal to year start");
+        }
+        mMinYear = minYear;
+        mMaxYear = maxYear;
+    }
+
+    /**
+     * @param minDay The first selectable epoch day, or Integer.MIN_VALUE for none
+     */
+    public void setMinDay(int minDay) {
+        mMinDay = minDay;
+    }
+
+    public int getMinDay() {
+        return mMinDay;
+    }
+
+    /**
+     * @param maxDay The last selectable epoch day, or Integer.MAX_VALUE for none
+     */
+    public void setMaxDay(int maxDay) {
+        mMaxDay = maxDay;
+    }
+
+    public int getMaxDay() {
+        return mMaxDay;
+    }
+
+    public void setHighlightedIndex(EpochDayIndex highlightedIndex) {
+        mHighlightedIndex = highlightedIndex;
+    }
+
+    public EpochDayIndex getHighlightedIndex() {
+        return mHighlightedIndex;
+    }
+
+    public void setSelectableIndex(EpochDayIndex selectableIndex) {
+        mSelectableIndex = selectableIndex;
+    }
+
+    public EpochDayIndex getSelectableIndex() {
+        return mSelectableIndex;
+    }
+
+    public void setDisabledIndex(EpochDayIndex disabledIndex) {
+        mDisabledIndex = disabledIndex;
+    }
+
+    public EpochDayIndex getDisabledIndex() {
+        return mDisabledIndex;
+    }
+
+    public void setSelectableRanges(EpochDayRanges selectableRanges) {
+        mSelectableRanges = selectableRanges;
+    }
+
+    public EpochDayRanges getSelectableRanges() {
+        return mSelectableRanges;
+    }
+
+    public void setDisabledRanges(EpochDayRanges disabledRanges) {
+        mDisabledRanges = disabledRanges;
+    }
+
+    public EpochDayRanges getDisabledRanges() {
+        return mDisabledRanges;
+    }
+
+    public void setHighlightedRule(DateRule highlightedRule) {
+        mHighlightedRule = highlightedRule;
+    }
+
+    public DateRule getHighlightedRule() {
+        return mHighlightedRule;
+    }
+
+    public void setSelectableRule(DateRule selectableRule) {
+        mSelectableRule = selectableRule;
+    }
+
+    public DateRule getSelectableRule() {
+        return mSelectableRule;
+    }
+
+    public void setDisabledRule(DateRule disabledRule) {
+        mDisabledRule = disabledRule;
+    }
+
+    public DateRule getDisabledRule() {
+        return mDisabledRule;
+    }
+
+    /**
+     * @return true if the day can not be selected
+     */
+    public boolean isOutOfRange(int year, int month, int day) {
+        int epochDay = EpochDayIndex.toEpochDay(year, month, day);
+        return isDisabled(epochDay) || !isSelectable(epochDay)
+                || (mDisabledRule != null && mDisabledRule.matches(year, month, day))
+                || (mSelectableRule != null && !mSelectableRule.matches(year, month, day));
+    }
+
+    public boolean isHighlighted(int year, int month, int day) {
+        return (mHighlightedIndex != null && mHighlightedIndex.contains(year, month, day))
+                || (mHighlightedRule != null && mHighlightedRule.matches(year, month, day));
+    }
+
+    /**
+     * @return true if selectable or disabled ranges are set
+     */
+    public boolean hasRanges() {
+        return mSelectableRanges != null || mDisabledRanges != null;
+    }
+
+    /**
+     * @return the first day of the min date or the year range
+     */
+    public int getFirstDay() {
+        return mMinDay != Integer.MIN_VALUE ? mMinDay : EpochDayIndex.toEpochDay(mMinYear, Calendar.JANUARY, 1);
+    }
+
+    /**
+     * @return the last day of the max date or the year range
+     */
+    public int getLastDay() {
+        return mMaxDay != Integer.MAX_VALUE ? mMaxDay : EpochDayIndex.toEpochDay(mMaxYear, Calendar.DECEMBER, 31);
+    }
+
+    /**
+     * Finds the first valid day at or after epochDay. Runs of disabled days and gaps between
+     * selectable days or ranges are skipped with a single lookup each, only days rejected by
+     * a {@link DateRule} are stepped over one at a time, at most {@link #MAX_RULE_STEPS} times.
+     * @param epochDay the day to start from
+     * @param limit the last day to consider
+     * @param scratch a Calendar used to evaluate the rules
+     * @return the valid day, or Integer.MAX_VALUE if there is none
+     */
+    public int nextValidDay(int epochDay, int limit, Calendar scratch) {
+        limit = Math.min(limit, mMaxDay);
+        int ruleSteps = 0;
+        while (epochDay <= limit) {
+            int next = Math.max(epochDay, mMinDay);
+            if (mSelectableIndex != null) next = mSelectableIndex.ceiling(next);
+            if (mSelectableRanges != null && next != Integer.MAX_VALUE) next = mSelectableRanges.ceilingInside(next);
+            if (mDisabledRanges != null && next != Integer.MAX_VALUE) next = mDisabledRanges.ceilingOutside(next);
+            if (mDisabledIndex != null && next != Integer.MAX_VALUE) next = mDisabledIndex.ceilingOutside(next);
+            if (next == Integer.MAX_VALUE) break;
+            if (next == epochDay) {
+                if (matchesRules(epochDay, scratch)) return epochDay;
+                if (++ruleSteps > MAX_RULE_STEPS) break;
+                next++;
+            }
+            epochDay = next;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Finds the last valid day at or before epochDay, see {@link #nextValidDay(int, int, Calendar)}
+     * @param epochDay the day to start from
+     * @param limit the first day to consider
+     * @param scratch a Calendar used to evaluate the rules
+     * @return the valid day, or Integer.MIN_VALUE if there is none
+     */
+    public int previousValidDay(int epochDay, int limit, Calendar scratch) {
+        limit = Math.max(limit, mMinDay);
+        int ruleSteps = 0;
+        while (epochDay >= limit) {
+            int previous = Math.min(epochDay, mMaxDay);
+            if (mSelectableIndex != null) previous = mSelectableIndex.floor(previous);
+            if (mSelectableRanges != null && previous != Integer.MIN_VALUE) previous = mSelectableRanges.floorInside(previous);
+            if (mDisabledRanges != null && previous != Integer.MIN_VALUE) previous = mDisabledRanges.floorOutside(previous);
+            if (mDisabledIndex != null && previous != Integer.MIN_VALUE) previous = mDisabledIndex.floorOutside(previous);
+            if (previous == Integer.MIN_VALUE) break;
+            if (previous == epochDay) {
+                if (matchesRules(epochDay, scratch)) return epochDay;
+                if (++ruleSteps > MAX_RULE_STEPS) break;
+                previous--;
+            }
+            epochDay = previous;
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * @param start true for the first valid day, false for the last one
+     * @param scratch a Calendar used to evaluate the rules
+     * @return the first or last valid day within the min and max date, or the min or max date
+     * itself if nothing can be selected
+     */
+    public int getBoundary(boolean start, Calendar scratch) {
+        final int first = getFirstDay();
+        final int last = getLastDay();
+        int day = start ? nextValidDay(first, last, scratch) : previousValidDay(last, first, scratch);
+        if (day == Integer.MAX_VALUE || day == Integer.MIN_VALUE) day = start ? first : last;
+        return day;
+    }
+
+    /**
+     * Finds the valid day closest to the given one, preferring the earlier day on a tie.
+     * If nothing can be selected, the day is only clamped to the min and max date.
+     * @param epochDay the day to round
+     * @param scratch a Calendar used to evaluate the rules
+     * @return the nearest valid day
+     */
+    public int nearestValidDay(int epochDay, Calendar scratch) {
+        final int first = getFirstDay();
+        final int last = getLastDay();
+
+        int next = nextValidDay(epochDay, last, scratch);
+        if (next == epochDay) return epochDay;
+        int previous = previousValidDay(epochDay, first, scratch);
+
+        if (next == Integer.MAX_VALUE && previous == Integer.MIN_VALUE) {
+            if (epochDay < first) return first;
+            if (epochDay > last) return last;
+            return epochDay;
+        }
+        long forwardDistance = (long) next - epochDay;
+        long backwardDistance = (long) epochDay - previous;
+        return backwardDistance <= forwardDistance ? previous : next;
+    }
+
+    private boolean isDisabled(int epochDay) {
+        return epochDay < mMinDay || epochDay > mMaxDay
+                || (mDisabledIndex != null && mDisabledIndex.contains(epochDay))
+                || (mDisabledRanges != null && mDisabledRanges.contains(epochDay));
+    }
+
+    private boolean isSelectable(int epochDay) {
+        return (mSelectableIndex == null || mSelectableIndex.contains(epochDay))
+                && (mSelectableRanges == null || mSelectableRanges.contains(epochDay));
+    }
+
+    private boolean matchesRules(int epochDay, Calendar scratch) {
+        if (mSelectableRule == null && mDisabledRule == null) return true;
+        EpochDayIndex.toCalendar(epochDay, scratch);
+        int year = scratch.get(Calendar.YEAR);
+        int month = scratch.get(Calendar.MONTH);
+        int day = scratch.get(Calendar.DAY_OF_MONTH);
+        return (mSelectableRule == null || mSelectableRule.matches(year, month, day))
+                && (mDisabledRule == null || !mDisabledRule.matches(year, month, day));
+    }
+}
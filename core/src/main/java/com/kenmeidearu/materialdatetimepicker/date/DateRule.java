@@ -0,0 +1,227 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+import java.io.Serializable;
+import java.util.Calendar;
+
+/**
+ * A predicate over calendar days which the picker evaluates lazily, only for the days
+ * of the months that are actually shown. Use the static factories to describe recurring
+ * constraints (e.g. "every weekend" or "the 4th Thursday of November") and combine them
+ * with {@link #allOf(DateRule...)}, {@link #anyOf(DateRule...)} and {@link #not(DateRule)}.
+ * Memory use does not depend on the range of years the picker covers.
+ *
+ * All months are 0-based and days of the week use the {@link Calendar} constants.
+ */
+public abstract class DateRule implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param year  the year
+     * @param month the month (0-11)
+     * @param day   the day of the month
+     * @return true if this rule applies to the given date
+     */
+    public abstract boolean matches(int year, int month, int day);
+
+    public DateRule and(DateRule other) {
+        return allOf(this, other);
+    }
+
+    public DateRule or(DateRule other) {
+        return anyOf(this, other);
+    }
+
+    public DateRule negate() {
+        return not(this);
+    }
+
+    /**
+     * @param daysOfWeek {@link Calendar#SUNDAY} through {@link Calendar#SATURDAY}
+     * @return a rule matching every date which falls on one of the given days of the week
+     */
+    public static DateRule daysOfWeek(int... daysOfWeek) {
+        int mask = 0;
+        for (int dayOfWeek : daysOfWeek) mask |= 1 << checkDayOfWeek(dayOfWeek);
+        return new DayOfWeekRule(mask);
+    }
+
+    /**
+     * @param month the month (0-11)
+     * @param day   the day of the month
+     * @return a rule matching the given month and day in every year
+     */
+    public static DateRule annually(int month, int day) {
+        if (month < Calendar.JANUARY || month > Calendar.DECEMBER) {
+            throw new IllegalArgumentException("Month must be between Calendar.JANUARY and " +
+                    "Calendar.DECEMBER");
+        }
+        return new AnnualRule(month, day);
+    }
+
+    /**
+     * @param n         the occurrence within the month, 1 for the first. Negative values count
+     *                  back from the end of the month, -1 being the last occurrence
+     * @param dayOfWeek {@link Calendar#SUNDAY} through {@link Calendar#SATURDAY}
+     * @return a rule matching the nth occurrence of the given day of the week in every month
+     */
+    public static DateRule nthDayOfWeekInMonth(int n, int dayOfWeek) {
+        return nthDayOfWeekInMonth(-1, n, dayOfWeek);
+    }
+
+    /**
+     * @param month     the month (0-11), or -1 to match every month
+     * @param n         the occurrence within the month, 1 for the first. Negative values count
+     *                  back from the end of the month, -1 being the last occurrence
+     * @param dayOfWeek {@link Calendar#SUNDAY} through {@link Calendar#SATURDAY}
+     * @return a rule matching the nth occurrence of the given day of the week in the given month
+     */
+    public static DateRule nthDayOfWeekInMonth(int month, int n, int dayOfWeek) {
+        if (n == 0 || n > 5 || n < -5) {
+            throw new IllegalArgumentException("n must be between 1 and 5 or -1 and -5");
+        }
+        return new NthDayOfWeekRule(month, n, checkDayOfWeek(dayOfWeek));
+    }
+
+    /**
+     * @param dates the dates to match
+     * @return a rule matching exactly the given dates
+     */
+    public static DateRule dates(Calendar... dates) {
+        return new DatesRule(EpochDayIndex.of(dates));
+    }
+
+    public static DateRule allOf(DateRule... rules) {
+        return new CompositeRule(rules, true);
+    }
+
+    public static DateRule anyOf(DateRule... rules) {
+        return new CompositeRule(rules, false);
+    }
+
+    public static DateRule not(DateRule rule) {
+        return new NotRule(rule);
+    }
+
+    /**
+     * @param epochDay the number of days since 1970-01-01
+     * @return the day of the week, {@link Calendar#SUNDAY} through {@link Calendar#SATURDAY}
+     */
+    static int dayOfWeek(int epochDay) {
+        // 1970-01-01 was a Thursday
+        int offset = (epochDay + Calendar.THURSDAY - Calendar.SUNDAY) % 7;
+        if (offset < 0) offset += 7;
+        return offset + Calendar.SUNDAY;
+    }
+
+    private static int checkDayOfWeek(int dayOfWeek) {
+        if (dayOfWeek < Calendar.SUNDAY || dayOfWeek > Calendar.SATURDAY) {
+            throw new IllegalArgumentException("Value must be between Calendar.SUNDAY and " +
+                    "Calendar.SATURDAY");
+        }
+        return dayOfWeek;
+    }
+
+    private static class DayOfWeekRule extends DateRule {
+        private static final long serialVersionUID = 1L;
+
+        private final int mMask;
+
+        DayOfWeekRule(int mask) {
+            mMask = mask;
+        }
+
+        @Override
+        public boolean matches(int year, int month, int day) {
+            return (mMask & (1 << dayOfWeek(EpochDayIndex.toEpochDay(year, month, day)))) != 0;
+        }
+    }
+
+    private static class AnnualRule extends DateRule {
+        private static final long serialVersionUID = 1L;
+
+        private final int mMonth;
+        private final int mDay;
+
+        AnnualRule(int month, int day) {
+            mMonth = month;
+            mDay = day;
+        }
+
+        @Override
+        public boolean matches(int year, int month, int day) {
+            return month == mMonth && day == mDay;
+        }
+    }
+
+    private static class NthDayOfWeekRule extends DateRule {
+        private static final long serialVersionUID = 1L;
+
+        private final int mMonth;
+        private final int mN;
+        private final int mDayOfWeek;
+
+        NthDayOfWeekRule(int month, int n, int dayOfWeek) {
+            mMonth = month;
+            mN = n;
+            mDayOfWeek = dayOfWeek;
+        }
+
+        @Override
+        public boolean matches(int year, int month, int day) {
+            if (mMonth != -1 && month != mMonth) return false;
+            if (dayOfWeek(EpochDayIndex.toEpochDay(year, month, day)) != mDayOfWeek) return false;
+            if (mN > 0) return (day - 1) / 7 == mN - 1;
+            return (EpochDayIndex.daysInMonth(year, month) - day) / 7 == -mN - 1;
+        }
+    }
+
+    private static class DatesRule extends DateRule {
+        private static final long serialVersionUID = 1L;
+
+        private final EpochDayIndex mIndex;
+
+        DatesRule(EpochDayIndex index) {
+            mIndex = index;
+        }
+
+        @Override
+        public boolean matches(int year, int month, int day) {
+            return mIndex.contains(year, month, day);
+        }
+    }
+
+    private static class CompositeRule extends DateRule {
+        private static final long serialVersionUID = 1L;
+
+        private final DateRule[] mRules;
+        private final boolean mAll;
+
+        CompositeRule(DateRule[] rules, boolean all) {
+            mRules = rules.clone();
+            mAll = all;
+        }
+
+        @Override
+        public boolean matches(int year, int month, int day) {
+            for (DateRule rule : mRules) {
+                if (rule.matches(year, month, day) != mAll) return !mAll;
+            }
+            return mAll;
+        }
+    }
+
+    private static class NotRule extends DateRule {
+        private static final long serialVersionUID = 1L;
+
+        private final DateRule mRule;
+
+        NotRule(DateRule rule) {
+            mRule = rule;
+        }
+
+        @Override
+        public boolean matches(int year, int month, int day) {
+            return !mRule.matches(year, month, day);
+        }
+    }
+}
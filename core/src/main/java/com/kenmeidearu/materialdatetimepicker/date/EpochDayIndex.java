@@ -0,0 +1,234 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+/**
+ * A sorted, de-duplicated set of days stored as days since 1970-01-01.
+ * Lookups are a binary search over a primitive array, so checking a date
+ * never touches a Calendar or recomputes its fields.
+ */
+public class EpochDayIndex implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int[] mDays;
+
+    private EpochDayIndex(int[] days) {
+        mDays = days;
+    }
+
+    /**
+     * Compiles an array of Calendar objects into an index
+     * @param calendars the dates to index, may be in any order and contain duplicates
+     * @return the index, or null if calendars is null
+     */
+    public static EpochDayIndex of(Calendar[] calendars) {
+        if (calendars == null) return null;
+        int[] days = new int[calendars.length];
+        for (int i = 0; i < calendars.length; i++) days[i] = toEpochDay(calendars[i]);
+        return of(days);
+    }
+
+    /**
+     * Compiles an array of epoch days into an index. The array is sorted in place.
+     * @param days the epoch days to index
+     * @return the index, or null if days is null
+     */
+    public static EpochDayIndex of(int[] days) {
+        if (days == null) return null;
+        Arrays.sort(days);
+        int size = 0;
+        for (int i = 0; i < days.length; i++) {
+            if (size == 0 || days[size - 1] != days[i]) days[size++] = days[i];
+        }
+        return new EpochDayIndex(size == days.length ? days : Arrays.copyOf(days, size));
+    }
+
+    /**
+     * @param epochDay the day to look up
+     * @return true if the day is part of this index
+     */
+    public boolean contains(int epochDay) {
+        return Arrays.binarySearch(mDays, epochDay) >= 0;
+    }
+
+    /**
+     * @param year the year
+     * @param month the month (0-11) for compatibility with {@link Calendar}
+     * @param day the day of the month
+     * @return true if the date is part of this index
+     */
+    public boolean contains(int year, int month, int day) {
+        return contains(toEpochDay(year, month, day));
+    }
+
+    public int size() {
+        return mDays.length;
+    }
+
+    public boolean isEmpty() {
+        return mDays.length == 0;
+    }
+
+    /**
+     * @return the earliest day in this index
+     */
+    public int first() {
+        return mDays[0];
+    }
+
+    /**
+     * @return the latest day in this index
+     */
+    public int last() {
+        return mDays[mDays.length - 1];
+    }
+
+    /**
+     * @param index the position in the sorted index
+     * @return the epoch day at the given position
+     */
+    public int get(int index) {
+        return mDays[index];
+    }
+
+    /**
+     * @param epochDay the day to start from
+     * @return the smallest day in this index which is larger than or equal to epochDay,
+     * or Integer.MAX_VALUE if there is none
+     */
+    public int ceiling(int epochDay) {
+        int index = Arrays.binarySearch(mDays, epochDay);
+        if (index < 0) index = -index - 1;
+        return index < mDays.length ? mDays[index] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @param epochDay the day to start from
+     * @return the largest day in this index which is smaller than or equal to epochDay,
+     * or Integer.MIN_VALUE if there is none
+     */
+    public int floor(int epochDay) {
+        int index = Arrays.binarySearch(mDays, epochDay);
+        if (index < 0) index = -index - 2;
+        return index >= 0 ? mDays[index] : Integer.MIN_VALUE;
+    }
+
+    /**
+     * Skips the run of consecutive days in this index that contains epochDay.
+     * @param epochDay the day to start from
+     * @return the smallest day which is larger than or equal to epochDay and not part of this index
+     */
+    public int ceilingOutside(int epochDay) {
+        int index = Arrays.binarySearch(mDays, epochDay);
+        if (index < 0) return epochDay;
+        return mDays[lastOfRun(index)] + 1;
+    }
+
+    /**
+     * Skips the run of consecutive days in this index that contains epochDay.
+     * @param epochDay the day to start from
+     * @return the largest day which is smaller than or equal to epochDay and not part of this index
+     */
+    public int floorOutside(int epochDay) {
+        int index = Arrays.binarySearch(mDays, epochDay);
+        if (index < 0) return epochDay;
+        return mDays[firstOfRun(index)] - 1;
+    }
+
+    /**
+     * Since the days are unique and sorted, mDays[i] - i never decreases and is constant
+     * exactly within a run of consecutive days, so the ends of a run can be binary searched.
+     */
+    private int lastOfRun(int index) {
+        final int key = mDays[index] - index;
+        int low = index;
+        int high = mDays.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (mDays[mid] - mid == key) low = mid;
+            else high = mid - 1;
+        }
+        return low;
+    }
+
+    private int firstOfRun(int index) {
+        final int key = mDays[index] - index;
+        int low = 0;
+        int high = index;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mDays[mid] - mid == key) high = mid;
+            else low = mid + 1;
+        }
+        return low;
+    }
+
+    /**
+     * Converts a date in the proleptic Gregorian calendar to the number of days since 1970-01-01.
+     * @param year the year
+     * @param month the month (0-11) for compatibility with {@link Calendar}
+     * @param day the day of the month
+     * @return the epoch day
+     */
+    public static int toEpochDay(int year, int month, int day) {
+        int m = month + 1;
+        int y = m <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (m > 2 ? m - 3 : m + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * @param year the year
+     * @param month the month (0-11)
+     * @return the number of days in the given month
+     */
+    public static int daysInMonth(int year, int month) {
+        int nextMonth = month == Calendar.DECEMBER
+                ? toEpochDay(year + 1, Calendar.JANUARY, 1)
+                : toEpochDay(year, month + 1, 1);
+        return nextMonth - toEpochDay(year, month, 1);
+    }
+
+    /**
+     * @return a Calendar for the current time which applies the Gregorian rules to all dates,
+     * like the epoch day arithmetic, instead of switching to the Julian calendar before October 1582
+     */
+    public static GregorianCalendar newCalendar() {
+        GregorianCalendar calendar = new GregorianCalendar();
+        calendar.setGregorianChange(new Date(Long.MIN_VALUE));
+        return calendar;
+    }
+
+    public static int toEpochDay(Calendar calendar) {
+        return toEpochDay(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH),
+                calendar.get(Calendar.DAY_OF_MONTH));
+    }
+
+    /**
+     * Sets the year, month and day of a Calendar to the given epoch day.
+     * The time of day of the Calendar is left untouched.
+     * @param epochDay the number of days since 1970-01-01
+     * @param calendar the Calendar to update
+     * @return the updated Calendar
+     */
+    public static Calendar toCalendar(int epochDay, Calendar calendar) {
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 2 : mp - 10;
+        int year = yearOfEra + era * 400 + (month <= Calendar.FEBRUARY ? 1 : 0);
+        calendar.set(year, month, day);
+        return calendar;
+    }
+}
@@ -0,0 +1,189 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Calendar;
+
+/**
+ * A set of inclusive date ranges stored as sorted, merged and non-overlapping
+ * intervals of days since 1970-01-01. Membership and successor/predecessor
+ * queries are a binary search over the interval starts.
+ */
+public class EpochDayRanges implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int[] mStarts;
+    private final int[] mEnds;
+
+    private EpochDayRanges(int[] starts, int[] ends) {
+        mStarts = starts;
+        mEnds = ends;
+    }
+
+    /**
+     * Compiles pairs of Calendar objects into a set of ranges. Overlapping and adjacent
+     * ranges are merged.
+     * @param startDays the first day of every range
+     * @param endDays the last day of every range, inclusive
+     * @return the ranges, or null if either array is null
+     */
+    public static EpochDayRanges of(Calendar[] startDays, Calendar[] endDays) {
+        if (startDays == null || endDays == null) return null;
+        if (startDays.length != endDays.length) {
+            throw new IllegalArgumentException("Every range needs both a start and an end date");
+        }
+        int[] starts = new int[startDays.length];
+        int[] ends = new int[endDays.length];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = EpochDayIndex.toEpochDay(startDays[i]);
+            ends[i] = EpochDayIndex.toEpochDay(endDays[i]);
+        }
+        return of(starts, ends);
+    }
+
+    /**
+     * Compiles pairs of epoch days into a set of ranges. Overlapping and adjacent
+     * ranges are merged.
+     * @param starts the first day of every range
+     * @param ends the last day of every range, inclusive
+     * @return the ranges
+     */
+    public static EpochDayRanges of(int[] starts, int[] ends) {
+        final int count = starts.length;
+        long[] ranges = new long[count];
+        for (int i = 0; i < count; i++) {
+            if (ends[i] < starts[i]) {
+                throw new IllegalArgumentException("The end of a range must be larger than or " +
+                        "equal to its start");
+            }
+            // Pack the range so it sorts by its start
+            ranges[i] = ((long) starts[i] << 32) | (ends[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(ranges);
+
+        int[] mergedStarts = new int[count];
+        int[] mergedEnds = new int[count];
+        int size = 0;
+        for (long range : ranges) {
+            int start = (int) (range >> 32);
+            int end = (int) range;
+            if (size > 0 && (long) start <= (long) mergedEnds[size - 1] + 1) {
+                mergedEnds[size - 1] = Math.max(mergedEnds[size - 1], end);
+            } else {
+                mergedStarts[size] = start;
+                mergedEnds[size] = end;
+                size++;
+            }
+        }
+        return new EpochDayRanges(Arrays.copyOf(mergedStarts, size), Arrays.copyOf(mergedEnds, size));
+    }
+
+    /**
+     * @param bounds the first and last day of every range as returned by {@link #toBounds()}
+     * @return the ranges, or null if bounds is null
+     */
+    public static EpochDayRanges ofBounds(int[] bounds) {
+        if (bounds == null) return null;
+        int[] starts = new int[bounds.length / 2];
+        int[] ends = new int[bounds.length / 2];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = bounds[2 * i];
+            ends[i] = bounds[2 * i + 1];
+        }
+        return of(starts, ends);
+    }
+
+    /**
+     * @return the first and last day of every range, interleaved and in ascending order
+     */
+    public int[] toBounds() {
+        int[] bounds = new int[mStarts.length * 2];
+        for (int i = 0; i < mStarts.length; i++) {
+            bounds[2 * i] = mStarts[i];
+            bounds[2 * i + 1] = mEnds[i];
+        }
+        return bounds;
+    }
+
+    /**
+     * @return the number of disjoint ranges
+     */
+    public int size() {
+        return mStarts.length;
+    }
+
+    public boolean isEmpty() {
+        return mStarts.length == 0;
+    }
+
+    /**
+     * @return the first day covered by these ranges
+     */
+    public int first() {
+        return mStarts[0];
+    }
+
+    /**
+     * @return the last day covered by these ranges
+     */
+    public int last() {
+        return mEnds[mEnds.length - 1];
+    }
+
+    /**
+     * @param epochDay the day to look up
+     * @return true if the day lies within one of the ranges
+     */
+    public boolean contains(int epochDay) {
+        int index = indexOfFloor(epochDay);
+        return index >= 0 && epochDay <= mEnds[index];
+    }
+
+    /**
+     * @param epochDay the day to start from
+     * @return the smallest day which is larger than or equal to epochDay and lies within a range,
+     * or Integer.MAX_VALUE if there is none
+     */
+    public int ceilingInside(int epochDay) {
+        int index = indexOfFloor(epochDay);
+        if (index >= 0 && epochDay <= mEnds[index]) return epochDay;
+        return index + 1 < mStarts.length ? mStarts[index + 1] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @param epochDay the day to start from
+     * @return the largest day which is smaller than or equal to epochDay and lies within a range,
+     * or Integer.MIN_VALUE if there is none
+     */
+    public int floorInside(int epochDay) {
+        int index = indexOfFloor(epochDay);
+        if (index < 0) return Integer.MIN_VALUE;
+        return Math.min(epochDay, mEnds[index]);
+    }
+
+    /**
+     * @param epochDay the day to start from
+     * @return the smallest day which is larger than or equal to epochDay and is not covered by any range
+     */
+    public int ceilingOutside(int epochDay) {
+        int index = indexOfFloor(epochDay);
+        return index >= 0 && epochDay <= mEnds[index] ? mEnds[index] + 1 : epochDay;
+    }
+
+    /**
+     * @param epochDay the day to start from
+     * @return the largest day which is smaller than or equal to epochDay and is not covered by any range
+     */
+    public int floorOutside(int epochDay) {
+        int index = indexOfFloor(epochDay);
+        return index >= 0 && epochDay <= mEnds[index] ? mStarts[index] - 1 : epochDay;
+    }
+
+    /**
+     * @return the index of the last range starting at or before epochDay, or -1 if there is none
+     */
+    private int indexOfFloor(int epochDay) {
+        int index = Arrays.binarySearch(mStarts, epochDay);
+        return index >= 0 ? index : -index - 2;
+    }
+}
@@ -0,0 +1,32 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+/**
+ * The grid layout of a month: where its first day is placed and how many week rows it needs.
+ */
+public final class MonthGeometry {
+    private MonthGeometry() {
+    }
+
+    /**
+     * @param dayOfWeekStart The day of the week of the first day of the month, e.g. Calendar.MONDAY
+     * @param weekStart The first day of the week
+     * @param numDays The number of days in a week
+     * @return the number of empty cells before the first day of the month
+     */
+    public static int findDayOffset(int dayOfWeekStart, int weekStart, int numDays) {
+        return (dayOfWeekStart < weekStart ? (dayOfWeekStart + numDays) : dayOfWeekStart)
+                - weekStart;
+    }
+
+    /**
+     * @param offset The number of empty cells before the first day, see {@link #findDayOffset(int, int, int)}
+     * @param numCells The number of days in the month
+     * @param numDays The number of days in a week
+     * @return the number of week rows the month needs
+     */
+    public static int calculateNumRows(int offset, int numCells, int numDays) {
+        int dividend = (offset + numCells) / numDays;
+        int remainder = (offset + numCells) % numDays;
+        return (dividend + (remainder > 0 ? 1 : 0));
+    }
+}
@@ -0,0 +1,69 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+import java.util.Calendar;
+
+/**
+ * Maps the positions of the month list to (year, month) and back. The range is stored as
+ * absolute month numbers (year * 12 + month), so every lookup is plain integer arithmetic
+ * and never touches a Calendar.
+ */
+public class MonthIndex {
+    public static final int MONTHS_IN_YEAR = 12;
+
+    private int mFirstMonth;
+    private int mCount;
+
+    /**
+     * Updates the range of months, which both include the given dates
+     * @param startDate The first selectable date
+     * @param endDate The last selectable date
+     */
+    public void set(Calendar startDate, Calendar endDate) {
+        set(startDate.get(Calendar.YEAR), startDate.get(Calendar.MONTH),
+                endDate.get(Calendar.YEAR), endDate.get(Calendar.MONTH));
+    }
+
+    /**
+     * Updates the range of months
+     * @param startYear The year of the first month
+     * @param startMonth The first month (0-11)
+     * @param endYear The year of the last month
+     * @param endMonth The last month (0-11)
+     */
+    public void set(int startYear, int startMonth, int endYear, int endMonth) {
+        mFirstMonth = startYear * MONTHS_IN_YEAR + startMonth;
+        mCount = Math.max(0, endYear * MONTHS_IN_YEAR + endMonth - mFirstMonth + 1);
+    }
+
+    /**
+     * @return the number of months in the range
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * @param position The position in the list
+     * @return the year of the month at the given position
+     */
+    public int getYear(int position) {
+        return (mFirstMonth + position) / MONTHS_IN_YEAR;
+    }
+
+    /**
+     * @param position The position in the list
+     * @return the month (0-11) at the given position
+     */
+    public int getMonth(int position) {
+        return (mFirstMonth + position) % MONTHS_IN_YEAR;
+    }
+
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @return the position of the month, which lies outside of [0, getCount()) for months out of range
+     */
+    public int getPosition(int year, int month) {
+        return year * MONTHS_IN_YEAR + month - mFirstMonth;
+    }
+}
@@ -0,0 +1,244 @@
+package com.kenmeidearu.materialdatetimepicker.time;
+
+import java.util.BitSet;
+
+/**
+ * The selection constraints of a time picker: the min and max time and the selectable times.
+ * Times are seconds of the day, from 0 for 00:00:00 to {@link #SECONDS_PER_DAY} - 1 for 23:59:59.
+ *
+ * The selectable times are kept in a set of {@link #SECONDS_PER_DAY} bits, about 10 KB, so lookups
+ * take constant time and rounding only scans for the next and previous set bit.
+ * Contains no Android code, so it can be tested and profiled on a plain JVM. Not thread-safe.
+ */
+public class TimeConstraints {
+    public static final int HOUR_INDEX = 0;
+    public static final int MINUTE_INDEX = 1;
+    public static final int SECOND_INDEX = 2;
+
+    public static final int SECONDS_PER_DAY = 24 * 3600;
+    public static final int MIDDAY = 12 * 3600;
+
+    private int mMinTime = -1;
+    private int mMaxTime = -1;
+    private BitSet mSelectableTimes;
+
+    public static int toSeconds(int hour, int minute, int second) {
+        return hour * 3600 + minute * 60 + second;
+    }
+
+    public static int getHour(int seconds) {
+        return seconds / 3600;
+    }
+
+    public static int getMinute(int seconds) {
+        return seconds / 60 % 60;
+    }
+
+    public static int getSecond(int seconds) {
+        return seconds % 60;
+    }
+
+    /**
+     * @param minTime The first selectable second of the day, or -1 for none
+     */
+    public void setMinTime(int minTime) {
+        if (minTime != -1 && mMaxTime != -1 && minTime > mMaxTime)
+            throw new IllegalArgumentException("Minimum time must be smaller than the maximum time");
+        mMinTime = minTime;
+    }
+
+    /**
+     * @return the first selectable second of the day, or -1 if there is none
+     */
+    public int getMinTime() {
+        return mMinTime;
+    }
+
+    /**
+     * @param maxTime The last selectable second of the day, or -1 for none
+     */
+    public void setMaxTime(int maxTime) {
+        if (maxTime != -1 && mMinTime != -1 && maxTime < mMinTime)
+            throw new IllegalArgumentException("Maximum time must be greater than the minimum time");
+        mMaxTime = maxTime;
+    }
+
+    /**
+     * @return the last selectable second of the day, or -1 if there is none
+     */
+    public int getMaxTime() {
+        return mMaxTime;
+    }
+
+    /**
+     * @param selectableTimes The only selectable seconds of the day, or null for no restriction
+     */
+    public void setSelectableTimes(int[] selectableTimes) {
+        if (selectableTimes == null) {
+            mSelectableTimes = null;
+            return;
+        }
+        BitSet times = new BitSet(SECONDS_PER_DAY);
+        for (int time : selectableTimes) {
+            if (time < 0 || time >= SECONDS_PER_DAY) {
+                throw new IllegalArgumentException("Selectable times must be seconds of the day, got " + time);
+            }
+            times.set(time);
+        }
+        mSelectableTimes = times;
+    }
+
+    /**
+     * Makes every time selectable whose hour, minute and second are multiples of the intervals
+     * @param hourInterval The interval between 2 selectable hours ([1,24])
+     * @param minuteInterval The interval between 2 selectable minutes ([1,60])
+     * @param secondInterval The interval between 2 selectable seconds ([1,60])
+     */
+    public void setTimeInterval(int hourInterval, int minuteInterval, int secondInterval) {
+        if (hourInterval < 1 || hourInterval > 24 || minuteInterval < 1 || minuteInterval > 60
+                || secondInterval < 1 || secondInterval > 60) {
+            throw new IllegalArgumentException("Intervals must be between 1 and 24 hours, 60 minutes and 60 seconds");
+        }
+        BitSet times = new BitSet(SECONDS_PER_DAY);
+        for (int hour = 0; hour < 24; hour += hourInterval) {
+            for (int minute = 0; minute < 60; minute += minuteInterval) {
+                final int minuteStart = toSeconds(hour, minute, 0);
+                if (secondInterval == 1) {
+                    times.set(minuteStart, minuteStart + 60);
+                    continue;
+                }
+                for (int second = 0; second < 60; second += secondInterval) {
+                    times.set(minuteStart + second);
+                }
+            }
+        }
+        mSelectableTimes = times;
+    }
+
+    /**
+     * @return the selectable seconds of the day in ascending order, or null if there is no restriction
+     */
+    public int[] getSelectableTimes() {
+        if (mSelectableTimes == null) return null;
+        int[] times = new int[mSelectableTimes.cardinality()];
+        int count = 0;
+        for (int time = mSelectableTimes.nextSetBit(0); time >= 0; time = mSelectableTimes.nextSetBit(time + 1)) {
+            times[count++] = time;
+        }
+        return times;
+    }
+
+    /**
+     * @return true if the time can not be selected
+     */
+    public boolean isOutOfRange(int time) {
+        if (mMinTime != -1 && mMinTime > time) return true;
+
+        if (mMaxTime != -1 && mMaxTime < time) return true;
+
+        if (mSelectableTimes != null) return time < 0 || time >= SECONDS_PER_DAY || !mSelectableTimes.get(time);
+
+        return false;
+    }
+
+    /**
+     * @param time The time to check
+     * @param index The field being picked, {@link #HOUR_INDEX}, {@link #MINUTE_INDEX} or {@link #SECOND_INDEX}
+     * @return true if no time with the same hour, or hour and minute, can be selected
+     */
+    public boolean isOutOfRange(int time, int index) {
+        if (index == HOUR_INDEX) {
+            final int hour = getHour(time);
+            if (mMinTime != -1 && getHour(mMinTime) > hour) return true;
+
+            if (mMaxTime != -1 && getHour(mMaxTime) + 1 <= hour) return true;
+
+            if (mSelectableTimes != null) return !containsBetween(hour * 3600, hour * 3600 + 3599);
+
+            return false;
+        }
+        else if (index == MINUTE_INDEX) {
+            final int minuteStart = time - getSecond(time);
+            if (mMinTime != -1 && mMinTime - getSecond(mMinTime) > time) return true;
+
+            if (mMaxTime != -1 && mMaxTime - getSecond(mMaxTime) + 59 < time) return true;
+
+            if (mSelectableTimes != null) return !containsBetween(minuteStart, minuteStart + 59);
+
+            return false;
+        }
+        else return isOutOfRange(time);
+    }
+
+    public boolean isAmDisabled() {
+        if (mMinTime != -1 && mMinTime > MIDDAY) return true;
+
+        if (mSelectableTimes != null) return !containsBetween(0, MIDDAY - 1);
+
+        return false;
+    }
+
+    public boolean isPmDisabled() {
+        if (mMaxTime != -1 && mMaxTime < MIDDAY) return true;
+
+        if (mSelectableTimes != null) return !containsBetween(MIDDAY, SECONDS_PER_DAY - 1);
+
+        return false;
+    }
+
+    /**
+     * Rounds a time to the nearest selectable time, preferring the earlier time on a tie.
+     * Times before the min or after the max time are moved to it. When rounding for the
+     * {@link #MINUTE_INDEX} or {@link #SECOND_INDEX}, only selectable times with the same hour,
+     * or the same hour and minute, are considered, and the time is kept if there is none.
+     * @param time The time to round
+     * @param index The field being picked
+     * @return the nearest valid time
+     */
+    public int roundToNearest(int time, int index) {
+        if (mMinTime != -1 && mMinTime > time) return mMinTime;
+
+        if (mMaxTime != -1 && mMaxTime < time) return mMaxTime;
+
+        if (mSelectableTimes != null) {
+            int from = 0;
+            int to = SECONDS_PER_DAY - 1;
+            if (index == MINUTE_INDEX) {
+                from = getHour(time) * 3600;
+                to = from + 3599;
+            } else if (index == SECOND_INDEX) {
+                from = time - getSecond(time);
+                to = from + 59;
+            }
+            from = Math.max(from, 0);
+            to = Math.min(to, SECONDS_PER_DAY - 1);
+            if (time < from || time > to) return time;
+            if (mSelectableTimes.get(time)) return time;
+            int next = mSelectableTimes.nextSetBit(time);
+            boolean hasNext = next >= 0 && next <= to;
+            // An earlier time only wins if it is at most as far away as the next one
+            int previous = previousSetBit(time, hasNext ? Math.max(from, 2 * time - next) : from);
+            boolean hasPrevious = previous >= 0;
+            if (hasPrevious && (!hasNext || time - previous <= next - time)) return previous;
+            if (hasNext) return next;
+        }
+
+        return time;
+    }
+
+    /**
+     * Scans backwards instead of BitSet#previousSetBit, which Android only has from API 19 on
+     * @return the last selectable time in [from, time], or -1 if there is none
+     */
+    private int previousSetBit(int time, int from) {
+        for (int i = time; i >= from; i--) {
+            if (mSelectableTimes.get(i)) return i;
+        }
+        return -1;
+    }
+
+    private boolean containsBetween(int from, int to) {
+        final int next = mSelectableTimes.nextSetBit(Math.max(from, 0));
+        return next >= 0 && next <= to;
+    }
+}
@@ -0,0 +1,116 @@
+package com.kenmeidearu.materialdatetimepicker;
+
+import com.kenmeidearu.materialdatetimepicker.date.EpochDayIndex;
+import com.kenmeidearu.materialdatetimepicker.time.TimeConstraints;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Calendar;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PackedIntsTest {
+    @Test
+    public void packRoundTrip() {
+        assertRoundTrip(new int[0]);
+        assertRoundTrip(new int[]{0});
+        assertRoundTrip(new int[]{-1});
+        assertRoundTrip(new int[]{-3, -3, 0, 1, 1, 127, 128, 16384});
+        assertRoundTrip(new int[]{Integer.MIN_VALUE, 0, Integer.MAX_VALUE});
+        assertRoundTrip(new int[]{Integer.MIN_VALUE});
+        assertRoundTrip(new int[]{Integer.MAX_VALUE});
+    }
+
+    @Test
+    public void packRoundTripRandom() {
+        Random random = new Random(42);
+        for (int n = 0; n < 100; n++) {
+            int[] values = new int[random.nextInt(200)];
+            int value = random.nextInt(100000) - 50000;
+            for (int i = 0; i < values.length; i++) {
+                value += random.nextInt(1000);
+                values[i] = value;
+            }
+            assertRoundTrip(values);
+        }
+    }
+
+    @Test
+    public void nullStaysNull() {
+        assertNull(PackedInts.pack(null));
+        assertNull(PackedInts.unpack(null));
+        assertNull(PackedInts.toRuns(null));
+        assertNull(PackedInts.fromRuns(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnsortedValues() {
+        PackedInts.pack(new int[]{2, 1});
+    }
+
+    @Test
+    public void runsRoundTrip() {
+        int[] values = {-5, -4, -3, 0, 2, 3, 4, 10};
+        int[] runs = PackedInts.toRuns(values);
+        assertArrayEquals(new int[]{-5, -3, 0, 0, 2, 4, 10, 10}, runs);
+        assertArrayEquals(values, PackedInts.fromRuns(runs));
+    }
+
+    @Test
+    public void runsMergeDuplicates() {
+        assertArrayEquals(new int[]{1, 3}, PackedInts.toRuns(new int[]{1, 1, 2, 3, 3}));
+        assertArrayEquals(new int[0], PackedInts.toRuns(new int[0]));
+    }
+
+    @Test
+    public void consecutiveDaysCostAboutOneByteEach() {
+        int[] days = new int[365];
+        for (int i = 0; i < days.length; i++) days[i] = 16801 + i;
+        // The count and first value take a few bytes, every following day one
+        assertEquals(2 + 3 + 364, PackedInts.pack(days).length);
+    }
+
+    @Test
+    public void savedDaysAreFarSmallerThanSerializedCalendars() throws IOException {
+        // A year of selectable days, as saved by the date picker before and after packing
+        Calendar[] calendars = new Calendar[365];
+        int[] days = new int[calendars.length];
+        for (int i = 0; i < calendars.length; i++) {
+            calendars[i] = EpochDayIndex.toCalendar(16801 + i, Calendar.getInstance());
+            days[i] = EpochDayIndex.toEpochDay(calendars[i]);
+        }
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(serialized);
+        out.writeObject(calendars);
+        out.close();
+
+        final int packed = PackedInts.pack(days).length;
+        assertTrue(packed <= days.length + 8);
+        assertTrue("packed " + packed + " bytes, serialized " + serialized.size(),
+                packed * 20 < serialized.size());
+    }
+
+    @Test
+    public void savedTimeIntervalTakesFiveBytes() {
+        // Every second of the day, which used to be saved as 86,400 Timepoints
+        TimeConstraints constraints = new TimeConstraints();
+        constraints.setTimeInterval(1, 1, 1);
+        int[] times = constraints.getSelectableTimes();
+        assertEquals(TimeConstraints.SECONDS_PER_DAY, times.length);
+
+        byte[] packed = PackedInts.pack(PackedInts.toRuns(times));
+        assertEquals(5, packed.length);
+        assertArrayEquals(times, PackedInts.fromRuns(PackedInts.unpack(packed)));
+    }
+
+    private static void assertRoundTrip(int[] values) {
+        assertArrayEquals(values, PackedInts.unpack(PackedInts.pack(values)));
+    }
+}
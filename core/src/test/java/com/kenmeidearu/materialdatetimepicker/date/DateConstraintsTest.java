@@ -0,0 +1,121 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DateConstraintsTest {
+    private static final int JAN_1_2016 = EpochDayIndex.toEpochDay(2016, Calendar.JANUARY, 1);
+
+    private DateConstraints mConstraints;
+    private Calendar mScratch;
+
+    @Before
+    public void setUp() {
+        mConstraints = new DateConstraints(1900, 2100);
+        mScratch = EpochDayIndex.newCalendar();
+    }
+
+    @Test
+    public void everyDayIsValidWithoutConstraints() {
+        assertEquals(JAN_1_2016, mConstraints.nextValidDay(JAN_1_2016, Integer.MAX_VALUE, mScratch));
+        assertEquals(JAN_1_2016, mConstraints.previousValidDay(JAN_1_2016, Integer.MIN_VALUE, mScratch));
+        assertEquals(JAN_1_2016, mConstraints.nearestValidDay(JAN_1_2016, mScratch));
+    }
+
+    @Test
+    public void skipsDisabledDaysAndRanges() {
+        mConstraints.setDisabledIndex(EpochDayIndex.of(new int[]{JAN_1_2016, JAN_1_2016 + 1}));
+        mConstraints.setDisabledRanges(EpochDayRanges.of(new int[]{JAN_1_2016 + 2}, new int[]{JAN_1_2016 + 9}));
+
+        assertEquals(JAN_1_2016 + 10, mConstraints.nextValidDay(JAN_1_2016, Integer.MAX_VALUE, mScratch));
+        assertEquals(JAN_1_2016 - 1, mConstraints.previousValidDay(JAN_1_2016 + 9, Integer.MIN_VALUE, mScratch));
+        assertTrue(mConstraints.isOutOfRange(2016, Calendar.JANUARY, 5));
+        assertFalse(mConstraints.isOutOfRange(2016, Calendar.JANUARY, 11));
+    }
+
+    @Test
+    public void jumpsBetweenSelectableDaysAndRanges() {
+        mConstraints.setSelectableIndex(EpochDayIndex.of(new int[]{JAN_1_2016, JAN_1_2016 + 50, JAN_1_2016 + 100}));
+        mConstraints.setSelectableRanges(EpochDayRanges.of(new int[]{JAN_1_2016 + 40}, new int[]{JAN_1_2016 + 200}));
+
+        assertEquals(JAN_1_2016 + 50, mConstraints.nextValidDay(JAN_1_2016, Integer.MAX_VALUE, mScratch));
+        assertEquals(JAN_1_2016 + 100, mConstraints.previousValidDay(JAN_1_2016 + 99 + 50, Integer.MIN_VALUE, mScratch));
+        assertEquals(Integer.MIN_VALUE, mConstraints.previousValidDay(JAN_1_2016 + 49, Integer.MIN_VALUE, mScratch));
+    }
+
+    @Test
+    public void respectsLimitAndMinMaxDay() {
+        mConstraints.setMinDay(JAN_1_2016);
+        mConstraints.setMaxDay(JAN_1_2016 + 10);
+
+        assertEquals(JAN_1_2016, mConstraints.nextValidDay(JAN_1_2016 - 100, Integer.MAX_VALUE, mScratch));
+        assertEquals(JAN_1_2016 + 10, mConstraints.previousValidDay(JAN_1_2016 + 100, Integer.MIN_VALUE, mScratch));
+        assertEquals(Integer.MAX_VALUE, mConstraints.nextValidDay(JAN_1_2016 + 11, Integer.MAX_VALUE, mScratch));
+        assertEquals(Integer.MAX_VALUE, mConstraints.nextValidDay(JAN_1_2016 + 5, JAN_1_2016 + 4, mScratch));
+    }
+
+    @Test
+    public void nearestPrefersEarlierDayOnTie() {
+        mConstraints.setSelectableIndex(EpochDayIndex.of(new int[]{JAN_1_2016, JAN_1_2016 + 4}));
+
+        assertEquals(JAN_1_2016, mConstraints.nearestValidDay(JAN_1_2016 + 2, mScratch));
+        assertEquals(JAN_1_2016, mConstraints.nearestValidDay(JAN_1_2016 + 1, mScratch));
+        assertEquals(JAN_1_2016 + 4, mConstraints.nearestValidDay(JAN_1_2016 + 3, mScratch));
+        assertEquals(JAN_1_2016, mConstraints.nearestValidDay(JAN_1_2016 - 1000, mScratch));
+        assertEquals(JAN_1_2016 + 4, mConstraints.nearestValidDay(JAN_1_2016 + 1000, mScratch));
+    }
+
+    @Test
+    public void rulesAreEvaluatedDayByDay() {
+        // 2016-01-01 was a Friday
+        mConstraints.setSelectableRule(DateRule.daysOfWeek(Calendar.MONDAY));
+
+        assertEquals(JAN_1_2016 + 3, mConstraints.nextValidDay(JAN_1_2016, Integer.MAX_VALUE, mScratch));
+        assertEquals(JAN_1_2016 - 4, mConstraints.previousValidDay(JAN_1_2016, Integer.MIN_VALUE, mScratch));
+        // Thursday is 3 days after the previous Monday and 4 days before the next one
+        assertEquals(JAN_1_2016 - 4, mConstraints.nearestValidDay(JAN_1_2016 - 1, mScratch));
+    }
+
+    @Test
+    public void givesUpAfterMaxRuleSteps() {
+        // Matches once every 4 years, but the search only steps over MAX_RULE_STEPS rejected days
+        mConstraints.setSelectableRule(DateRule.annually(Calendar.FEBRUARY, 29));
+        final int mar1 = EpochDayIndex.toEpochDay(2016, Calendar.MARCH, 1);
+        final int feb29 = EpochDayIndex.toEpochDay(2020, Calendar.FEBRUARY, 29);
+        assertTrue(feb29 - mar1 < DateConstraints.MAX_RULE_STEPS);
+        assertEquals(feb29, mConstraints.nextValidDay(mar1, Integer.MAX_VALUE, mScratch));
+
+        mConstraints.setSelectableRule(DateRule.annually(Calendar.FEBRUARY, 30));
+        assertEquals(Integer.MAX_VALUE, mConstraints.nextValidDay(mar1, Integer.MAX_VALUE, mScratch));
+        assertEquals(Integer.MIN_VALUE, mConstraints.previousValidDay(mar1, Integer.MIN_VALUE, mScratch));
+    }
+
+    @Test
+    public void noValidDayClampsToMinAndMax() {
+        mConstraints.setMinDay(JAN_1_2016);
+        mConstraints.setMaxDay(JAN_1_2016 + 30);
+        mConstraints.setDisabledRanges(EpochDayRanges.of(new int[]{JAN_1_2016}, new int[]{JAN_1_2016 + 30}));
+
+        assertEquals(JAN_1_2016 + 15, mConstraints.nearestValidDay(JAN_1_2016 + 15, mScratch));
+        assertEquals(JAN_1_2016, mConstraints.nearestValidDay(JAN_1_2016 - 5, mScratch));
+        assertEquals(JAN_1_2016 + 30, mConstraints.nearestValidDay(JAN_1_2016 + 50, mScratch));
+        assertEquals(JAN_1_2016, mConstraints.getBoundary(true, mScratch));
+        assertEquals(JAN_1_2016 + 30, mConstraints.getBoundary(false, mScratch));
+    }
+
+    @Test
+    public void boundaryFindsFirstAndLastValidDay() {
+        mConstraints.setYearRange(2016, 2016);
+        mConstraints.setDisabledRanges(EpochDayRanges.of(new int[]{JAN_1_2016}, new int[]{JAN_1_2016 + 9}));
+        mConstraints.setDisabledRule(DateRule.annually(Calendar.DECEMBER, 31));
+
+        assertEquals(JAN_1_2016 + 10, mConstraints.getBoundary(true, mScratch));
+        assertEquals(EpochDayIndex.toEpochDay(2016, Calendar.DECEMBER, 30), mConstraints.getBoundary(false, mScratch));
+    }
+}
@@ -0,0 +1,80 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EpochDayIndexTest {
+    // Runs of 10-12, 20 and 30-31
+    private final EpochDayIndex mIndex = EpochDayIndex.of(new int[]{31, 11, 20, 10, 12, 30, 11});
+
+    @Test
+    public void ofSortsAndDropsDuplicates() {
+        assertEquals(6, mIndex.size());
+        assertEquals(10, mIndex.first());
+        assertEquals(31, mIndex.last());
+        assertTrue(mIndex.contains(11));
+        assertFalse(mIndex.contains(13));
+    }
+
+    @Test
+    public void ceilingAndFloor() {
+        assertEquals(10, mIndex.ceiling(Integer.MIN_VALUE));
+        assertEquals(12, mIndex.ceiling(12));
+        assertEquals(20, mIndex.ceiling(13));
+        assertEquals(Integer.MAX_VALUE, mIndex.ceiling(32));
+
+        assertEquals(Integer.MIN_VALUE, mIndex.floor(9));
+        assertEquals(12, mIndex.floor(12));
+        assertEquals(12, mIndex.floor(19));
+        assertEquals(31, mIndex.floor(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void ceilingOutsideSkipsWholeRun() {
+        assertEquals(13, mIndex.ceilingOutside(10));
+        assertEquals(13, mIndex.ceilingOutside(11));
+        assertEquals(13, mIndex.ceilingOutside(12));
+        assertEquals(21, mIndex.ceilingOutside(20));
+        assertEquals(32, mIndex.ceilingOutside(30));
+        // Days outside the index are returned as they are
+        assertEquals(9, mIndex.ceilingOutside(9));
+        assertEquals(25, mIndex.ceilingOutside(25));
+    }
+
+    @Test
+    public void floorOutsideSkipsWholeRun() {
+        assertEquals(9, mIndex.floorOutside(12));
+        assertEquals(9, mIndex.floorOutside(11));
+        assertEquals(9, mIndex.floorOutside(10));
+        assertEquals(19, mIndex.floorOutside(20));
+        assertEquals(29, mIndex.floorOutside(31));
+        assertEquals(13, mIndex.floorOutside(13));
+    }
+
+    @Test
+    public void singleRunCoveringWholeIndex() {
+        EpochDayIndex index = EpochDayIndex.of(new int[]{-2, -1, 0, 1, 2});
+        assertEquals(3, index.ceilingOutside(-2));
+        assertEquals(-3, index.floorOutside(2));
+    }
+
+    @Test
+    public void epochDayRoundTrip() {
+        assertEquals(0, EpochDayIndex.toEpochDay(1970, Calendar.JANUARY, 1));
+        assertEquals(-1, EpochDayIndex.toEpochDay(1969, Calendar.DECEMBER, 31));
+        assertEquals(11016, EpochDayIndex.toEpochDay(2000, Calendar.FEBRUARY, 29));
+        assertEquals(29, EpochDayIndex.daysInMonth(2000, Calendar.FEBRUARY));
+        assertEquals(28, EpochDayIndex.daysInMonth(1900, Calendar.FEBRUARY));
+
+        Calendar calendar = EpochDayIndex.newCalendar();
+        for (int epochDay = -200000; epochDay <= 200000; epochDay += 997) {
+            EpochDayIndex.toCalendar(epochDay, calendar);
+            assertEquals(epochDay, EpochDayIndex.toEpochDay(calendar));
+        }
+    }
+}
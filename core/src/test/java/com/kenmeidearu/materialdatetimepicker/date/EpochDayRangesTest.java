@@ -0,0 +1,75 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EpochDayRangesTest {
+    @Test
+    public void mergesOverlappingRanges() {
+        EpochDayRanges ranges = EpochDayRanges.of(new int[]{10, 5, 12}, new int[]{20, 11, 15});
+        assertArrayEquals(new int[]{5, 20}, ranges.toBounds());
+    }
+
+    @Test
+    public void mergesAdjacentRanges() {
+        EpochDayRanges ranges = EpochDayRanges.of(new int[]{1, 4}, new int[]{3, 6});
+        assertArrayEquals(new int[]{1, 6}, ranges.toBounds());
+    }
+
+    @Test
+    public void keepsRangesWithGap() {
+        EpochDayRanges ranges = EpochDayRanges.of(new int[]{8, 1}, new int[]{9, 3});
+        assertEquals(2, ranges.size());
+        assertArrayEquals(new int[]{1, 3, 8, 9}, ranges.toBounds());
+    }
+
+    @Test
+    public void mergesContainedRange() {
+        EpochDayRanges ranges = EpochDayRanges.of(new int[]{0, 3}, new int[]{10, 4});
+        assertArrayEquals(new int[]{0, 10}, ranges.toBounds());
+    }
+
+    @Test
+    public void mergesAtIntegerLimits() {
+        EpochDayRanges ranges = EpochDayRanges.of(new int[]{Integer.MIN_VALUE, 0},
+                new int[]{-1, Integer.MAX_VALUE});
+        assertArrayEquals(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE}, ranges.toBounds());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEndBeforeStart() {
+        EpochDayRanges.of(new int[]{5}, new int[]{4});
+    }
+
+    @Test
+    public void boundsRoundTrip() {
+        EpochDayRanges ranges = EpochDayRanges.of(new int[]{-7, 30, 100}, new int[]{0, 40, 100});
+        assertArrayEquals(ranges.toBounds(), EpochDayRanges.ofBounds(ranges.toBounds()).toBounds());
+    }
+
+    @Test
+    public void lookups() {
+        EpochDayRanges ranges = EpochDayRanges.of(new int[]{10, 20}, new int[]{12, 25});
+        assertTrue(ranges.contains(10));
+        assertTrue(ranges.contains(25));
+        assertFalse(ranges.contains(15));
+
+        assertEquals(10, ranges.ceilingInside(0));
+        assertEquals(11, ranges.ceilingInside(11));
+        assertEquals(20, ranges.ceilingInside(13));
+        assertEquals(Integer.MAX_VALUE, ranges.ceilingInside(26));
+
+        assertEquals(Integer.MIN_VALUE, ranges.floorInside(9));
+        assertEquals(12, ranges.floorInside(19));
+        assertEquals(25, ranges.floorInside(30));
+
+        assertEquals(13, ranges.ceilingOutside(10));
+        assertEquals(15, ranges.ceilingOutside(15));
+        assertEquals(19, ranges.floorOutside(22));
+        assertEquals(9, ranges.floorOutside(12));
+    }
+}
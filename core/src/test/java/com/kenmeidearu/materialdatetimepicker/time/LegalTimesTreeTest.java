@@ -0,0 +1,98 @@
+package com.kenmeidearu.materialdatetimepicker.time;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LegalTimesTreeTest {
+    // The key codes of android.view.KeyEvent, the tree does not depend on them
+    private static final int[] DIGITS = {7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+    private static final int AM = 29;
+    private static final int PM = 44;
+
+    @Test
+    public void hoursOnly24Hour() {
+        LegalTimesTree tree = new LegalTimesTree(true, false, false, DIGITS, AM, PM);
+        assertTrue(tree.isLegalSoFar(keys("23")));
+        assertTrue(tree.isLegalSoFar(keys("19")));
+        assertFalse(tree.isLegalSoFar(keys("24")));
+        assertFalse(tree.isLegalSoFar(keys("3")));
+        assertFalse(tree.isLegalSoFar(keys("230")));
+    }
+
+    @Test
+    public void hoursOnly12Hour() {
+        LegalTimesTree tree = new LegalTimesTree(false, false, false, DIGITS, AM, PM);
+        assertTrue(tree.isLegalSoFar(keys("12p")));
+        assertTrue(tree.isLegalSoFar(keys("9a")));
+        assertFalse(tree.isLegalSoFar(keys("13")));
+        assertFalse(tree.isLegalSoFar(keys("0")));
+    }
+
+    @Test
+    public void minutes24Hour() {
+        LegalTimesTree tree = new LegalTimesTree(true, true, false, DIGITS, AM, PM);
+        assertTrue(tree.isLegalSoFar(keys("2359")));
+        assertTrue(tree.isLegalSoFar(keys("0009")));
+        assertTrue(tree.isLegalSoFar(keys("857")));
+        assertTrue(tree.isLegalSoFar(keys("253")));
+        assertFalse(tree.isLegalSoFar(keys("2360")));
+        assertFalse(tree.isLegalSoFar(keys("23590")));
+        assertFalse(tree.isLegalSoFar(keys("a")));
+    }
+
+    @Test
+    public void seconds24Hour() {
+        LegalTimesTree tree = new LegalTimesTree(true, true, true, DIGITS, AM, PM);
+        assertTrue(tree.isLegalSoFar(keys("235959")));
+        assertFalse(tree.isLegalSoFar(keys("235960")));
+        assertFalse(tree.isLegalSoFar(keys("2359590")));
+    }
+
+    @Test
+    public void minutes12Hour() {
+        LegalTimesTree tree = new LegalTimesTree(false, true, false, DIGITS, AM, PM);
+        assertTrue(tree.isLegalSoFar(keys("1049a")));
+        assertTrue(tree.isLegalSoFar(keys("108p")));
+        assertTrue(tree.isLegalSoFar(keys("1p")));
+        assertFalse(tree.isLegalSoFar(keys("1360")));
+        assertFalse(tree.isLegalSoFar(keys("1049ap")));
+    }
+
+    @Test
+    public void seconds12Hour() {
+        LegalTimesTree tree = new LegalTimesTree(false, true, true, DIGITS, AM, PM);
+        assertTrue(tree.isLegalSoFar(keys("104901a")));
+        assertFalse(tree.isLegalSoFar(keys("104961")));
+    }
+
+    @Test
+    public void nodesReachChildrenByKey() {
+        LegalTimesTree tree = new LegalTimesTree(true, false, false, DIGITS, AM, PM);
+        LegalTimesTree.Node first = tree.getRoot().canReach(DIGITS[2]);
+        assertTrue(first.containsKey(DIGITS[2]));
+        assertTrue(first.canReach(DIGITS[3]) != null);
+        assertNull(first.canReach(DIGITS[4]));
+        assertNull(tree.getRoot().canReach(AM));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMissingDigits() {
+        new LegalTimesTree(true, true, false, new int[9], AM, PM);
+    }
+
+    private static List<Integer> keys(String typed) {
+        List<Integer> keys = new ArrayList<>();
+        for (char c : typed.toCharArray()) {
+            if (c == 'a') keys.add(AM);
+            else if (c == 'p') keys.add(PM);
+            else keys.add(DIGITS[c - '0']);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,132 @@
+package com.kenmeidearu.materialdatetimepicker.time;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.kenmeidearu.materialdatetimepicker.time.TimeConstraints.HOUR_INDEX;
+import static com.kenmeidearu.materialdatetimepicker.time.TimeConstraints.MINUTE_INDEX;
+import static com.kenmeidearu.materialdatetimepicker.time.TimeConstraints.SECOND_INDEX;
+import static com.kenmeidearu.materialdatetimepicker.time.TimeConstraints.toSeconds;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TimeConstraintsTest {
+    private TimeConstraints mConstraints;
+
+    @Before
+    public void setUp() {
+        mConstraints = new TimeConstraints();
+    }
+
+    @Test
+    public void roundToNearestHour() {
+        mConstraints.setSelectableTimes(new int[]{toSeconds(8, 0, 0), toSeconds(14, 30, 0)});
+
+        assertEquals(toSeconds(8, 0, 0), mConstraints.roundToNearest(toSeconds(0, 0, 0), HOUR_INDEX));
+        assertEquals(toSeconds(8, 0, 0), mConstraints.roundToNearest(toSeconds(11, 0, 0), HOUR_INDEX));
+        assertEquals(toSeconds(14, 30, 0), mConstraints.roundToNearest(toSeconds(12, 0, 0), HOUR_INDEX));
+        assertEquals(toSeconds(14, 30, 0), mConstraints.roundToNearest(toSeconds(23, 59, 59), HOUR_INDEX));
+    }
+
+    @Test
+    public void roundToNearestMinuteStaysInHour() {
+        mConstraints.setSelectableTimes(new int[]{toSeconds(9, 59, 0), toSeconds(10, 40, 0)});
+
+        // 10:05 is closer to 9:59, but only times of the 10th hour are considered
+        assertEquals(toSeconds(10, 40, 0), mConstraints.roundToNearest(toSeconds(10, 5, 0), MINUTE_INDEX));
+        assertEquals(toSeconds(9, 59, 0), mConstraints.roundToNearest(toSeconds(9, 0, 0), MINUTE_INDEX));
+        // Kept if there is no selectable time in the hour
+        assertEquals(toSeconds(11, 30, 0), mConstraints.roundToNearest(toSeconds(11, 30, 0), MINUTE_INDEX));
+    }
+
+    @Test
+    public void roundToNearestSecondStaysInMinute() {
+        mConstraints.setSelectableTimes(new int[]{toSeconds(10, 0, 0), toSeconds(10, 5, 30)});
+
+        assertEquals(toSeconds(10, 5, 30), mConstraints.roundToNearest(toSeconds(10, 5, 0), SECOND_INDEX));
+        assertEquals(toSeconds(10, 5, 30), mConstraints.roundToNearest(toSeconds(10, 5, 59), SECOND_INDEX));
+        // 10:04:59 is a second away from the minute of 10:05:30, but other minutes are not considered
+        assertEquals(toSeconds(10, 4, 59), mConstraints.roundToNearest(toSeconds(10, 4, 59), SECOND_INDEX));
+        assertEquals(toSeconds(11, 5, 10), mConstraints.roundToNearest(toSeconds(11, 5, 10), SECOND_INDEX));
+        // The minute picker may leave the minute
+        assertEquals(toSeconds(10, 5, 30), mConstraints.roundToNearest(toSeconds(10, 4, 59), MINUTE_INDEX));
+    }
+
+    @Test
+    public void roundToNearestPrefersEarlierTimeOnTie() {
+        mConstraints.setSelectableTimes(new int[]{toSeconds(10, 0, 0), toSeconds(10, 0, 10)});
+
+        assertEquals(toSeconds(10, 0, 0), mConstraints.roundToNearest(toSeconds(10, 0, 5), SECOND_INDEX));
+        assertEquals(toSeconds(10, 0, 10), mConstraints.roundToNearest(toSeconds(10, 0, 6), SECOND_INDEX));
+    }
+
+    @Test
+    public void roundToNearestFindsEarlierTimeAcrossTheDay() {
+        mConstraints.setSelectableTimes(new int[]{toSeconds(1, 0, 0), toSeconds(23, 59, 59)});
+
+        assertEquals(toSeconds(1, 0, 0), mConstraints.roundToNearest(toSeconds(12, 0, 0), HOUR_INDEX));
+        assertEquals(toSeconds(23, 59, 59), mConstraints.roundToNearest(toSeconds(12, 30, 0), HOUR_INDEX));
+        mConstraints.setSelectableTimes(new int[]{toSeconds(1, 0, 0)});
+        assertEquals(toSeconds(1, 0, 0), mConstraints.roundToNearest(toSeconds(23, 59, 59), HOUR_INDEX));
+    }
+
+    @Test
+    public void roundToNearestClampsToMinAndMax() {
+        mConstraints.setMinTime(toSeconds(8, 0, 0));
+        mConstraints.setMaxTime(toSeconds(18, 0, 0));
+
+        for (int index = HOUR_INDEX; index <= SECOND_INDEX; index++) {
+            assertEquals(toSeconds(8, 0, 0), mConstraints.roundToNearest(toSeconds(7, 59, 59), index));
+            assertEquals(toSeconds(18, 0, 0), mConstraints.roundToNearest(toSeconds(18, 0, 1), index));
+            assertEquals(toSeconds(12, 34, 56), mConstraints.roundToNearest(toSeconds(12, 34, 56), index));
+        }
+    }
+
+    @Test
+    public void isOutOfRangePerField() {
+        mConstraints.setSelectableTimes(new int[]{toSeconds(10, 20, 30)});
+
+        assertFalse(mConstraints.isOutOfRange(toSeconds(10, 0, 0), HOUR_INDEX));
+        assertTrue(mConstraints.isOutOfRange(toSeconds(11, 0, 0), HOUR_INDEX));
+        assertFalse(mConstraints.isOutOfRange(toSeconds(10, 20, 0), MINUTE_INDEX));
+        assertTrue(mConstraints.isOutOfRange(toSeconds(10, 21, 0), MINUTE_INDEX));
+        assertFalse(mConstraints.isOutOfRange(toSeconds(10, 20, 30), SECOND_INDEX));
+        assertTrue(mConstraints.isOutOfRange(toSeconds(10, 20, 31), SECOND_INDEX));
+        assertFalse(mConstraints.isAmDisabled());
+        assertTrue(mConstraints.isPmDisabled());
+    }
+
+    @Test
+    public void timeIntervalSelectsMultiples() {
+        mConstraints.setTimeInterval(6, 30, 60);
+
+        int[] times = mConstraints.getSelectableTimes();
+        assertEquals(8, times.length);
+        assertEquals(toSeconds(0, 0, 0), times[0]);
+        assertEquals(toSeconds(18, 30, 0), times[7]);
+        assertEquals(toSeconds(6, 0, 0), mConstraints.roundToNearest(toSeconds(6, 10, 0), HOUR_INDEX));
+        assertEquals(toSeconds(6, 30, 0), mConstraints.roundToNearest(toSeconds(7, 0, 0), HOUR_INDEX));
+    }
+
+    @Test
+    public void selectableTimesRoundTrip() {
+        assertNull(mConstraints.getSelectableTimes());
+        int[] times = {0, 59, 3600, TimeConstraints.SECONDS_PER_DAY - 1};
+        mConstraints.setSelectableTimes(times);
+        assertArrayEquals(times, mConstraints.getSelectableTimes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTimesOutsideTheDay() {
+        mConstraints.setSelectableTimes(new int[]{TimeConstraints.SECONDS_PER_DAY});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMinAfterMax() {
+        mConstraints.setMaxTime(toSeconds(8, 0, 0));
+        mConstraints.setMinTime(toSeconds(9, 0, 0));
+    }
+}
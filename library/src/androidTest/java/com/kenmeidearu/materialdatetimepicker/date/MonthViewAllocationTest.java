@@ -0,0 +1,74 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.test.AndroidTestCase;
+import android.view.View;
+
+import java.util.Calendar;
+
+/**
+ * Checks that drawing a bound {@link MonthView} does not allocate, as it is drawn on every
+ * frame while the months are scrolled.
+ */
+public class MonthViewAllocationTest extends AndroidTestCase {
+    private static final int WIDTH = 1080;
+    private static final int DRAWS = 20;
+
+    private SimpleMonthView mMonthView;
+    private Canvas mCanvas;
+    private Bitmap mBitmap;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        DatePickerDialog controller = DatePickerDialog.newInstance(null, 2016, Calendar.MARCH, 15, 12, 0, true);
+        controller.setHighlightedRule(DateRule.daysOfWeek(Calendar.SATURDAY, Calendar.SUNDAY));
+        controller.setDisabledRule(DateRule.annually(Calendar.MARCH, 1));
+
+        mMonthView = new SimpleMonthView(getContext(), null, controller);
+        mMonthView.bind(new MonthParams().set(2016, Calendar.MARCH, 15, MonthParams.UNSET));
+        mMonthView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        mMonthView.layout(0, 0, mMonthView.getMeasuredWidth(), mMonthView.getMeasuredHeight());
+
+        mBitmap = Bitmap.createBitmap(mMonthView.getMeasuredWidth(), mMonthView.getMeasuredHeight(),
+                Bitmap.Config.ARGB_8888);
+        mCanvas = new Canvas(mBitmap);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mBitmap.recycle();
+        super.tearDown();
+    }
+
+    public void testDrawDoesNotAllocate() {
+        // The first frame may still format the day numbers of the locale
+        mMonthView.draw(mCanvas);
+
+        assertEquals(0, countDrawAllocations());
+    }
+
+    public void testDrawAfterRebindDoesNotAllocate() {
+        mMonthView.draw(mCanvas);
+        mMonthView.bind(new MonthParams().set(2016, Calendar.APRIL, -1, Calendar.MONDAY));
+        mMonthView.draw(mCanvas);
+
+        assertEquals(0, countDrawAllocations());
+    }
+
+    private int countDrawAllocations() {
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        try {
+            for (int i = 0; i < DRAWS; i++) {
+                mMonthView.draw(mCanvas);
+            }
+            return Debug.getThreadAllocCount();
+        } finally {
+            Debug.stopAllocCounting();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.kenmeidearu.materialdatetimepicker;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A process-wide pool of {@link SimpleDateFormat} instances keyed by (pattern, locale).
+ * Every formatter is built exactly once and only used while holding its lock, so the pool
+ * can be used from any thread. The methods without a locale use the default locale at the
+ * time of the call, so labels follow locale changes instead of the locale at class load.
+ */
+public final class DateFormatterPool {
+    private static final ConcurrentHashMap<Locale, ConcurrentHashMap<String, SimpleDateFormat>> FORMATTERS =
+            new ConcurrentHashMap<>();
+
+    private DateFormatterPool() {
+    }
+
+    public static String format(String pattern, Date date) {
+        return format(pattern, Locale.getDefault(), date);
+    }
+
+    public static String format(String pattern, long timeInMillis) {
+        return format(pattern, Locale.getDefault(), new Date(timeInMillis));
+    }
+
+    /**
+     * @param pattern The {@link SimpleDateFormat} pattern
+     * @param locale The locale to format in
+     * @param date The date to format
+     * @return the formatted date
+     */
+    public static String format(String pattern, Locale locale, Date date) {
+        final SimpleDateFormat formatter = get(pattern, locale);
+        synchronized (formatter) {
+            return formatter.format(date);
+        }
+    }
+
+    private static SimpleDateFormat get(String pattern, Locale locale) {
+        ConcurrentHashMap<String, SimpleDateFormat> formatters = FORMATTERS.get(locale);
+        if (formatters == null) {
+            ConcurrentHashMap<String, SimpleDateFormat> created = new ConcurrentHashMap<>();
+            formatters = FORMATTERS.putIfAbsent(locale, created);
+            if (formatters == null) formatters = created;
+        }
+        SimpleDateFormat formatter = formatters.get(pattern);
+        if (formatter == null) {
+            // Build under a lock so concurrent callers never construct the same formatter twice
+            synchronized (formatters) {
+                formatter = formatters.get(pattern);
+                if (formatter == null) {
+                    formatter = new SimpleDateFormat(pattern, locale);
+                    formatters.put(pattern, formatter);
+                }
+            }
+        }
+        return formatter;
+    }
+}
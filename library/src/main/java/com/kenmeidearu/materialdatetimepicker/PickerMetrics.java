@@ -0,0 +1,181 @@
+package com.kenmeidearu.materialdatetimepicker;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+/**
+ * Takes the measurements reported to a {@link PickerMetricsListener}. A dialog only creates one
+ * when a listener is set, and the views skip all measuring when their controller returns null,
+ * so pickers without a listener pay nothing.
+ *
+ * Bind, draw and touch measurements are sampled: only one in every {@code sampleRate} events
+ * is timed. Must only be used from the main thread.
+ */
+public final class PickerMetrics {
+    /**
+     * Frames longer than this missed at least one vsync on a 60 Hz display
+     */
+    public static final long SLOW_FRAME_NANOS = 25000000L;
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final PickerMetricsListener mListener;
+    private final int mSampleRate;
+    private int mBindCount;
+    private int mDrawCount;
+    private int mTouchCount;
+    private long mCreatedNanos;
+    // Uptime of the touch waiting for its frame, or 0
+    private long mTouchUptime;
+    private Object mFrameMonitor;
+
+    /**
+     * @param listener The listener to report to
+     * @param sampleRate Time one in this many binds, draws and touches, 1 times all of them
+     */
+    public PickerMetrics(PickerMetricsListener listener, int sampleRate) {
+        if (listener == null) throw new IllegalArgumentException("listener must not be null");
+        if (sampleRate < 1) throw new IllegalArgumentException("sampleRate must be at least 1");
+        mListener = listener;
+        mSampleRate = sampleRate;
+    }
+
+    /**
+     * Marks the creation of the dialog, the first frame is measured from here
+     */
+    public void onCreate() {
+        mCreatedNanos = System.nanoTime();
+    }
+
+    /**
+     * Reports the time since {@link #onCreate()} when the given view draws for the first time
+     * @param view The root view of the dialog
+     */
+    public void watchFirstFrame(View view) {
+        if (mCreatedNanos == 0) return;
+        final ViewTreeObserver observer = view.getViewTreeObserver();
+        observer.addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                if (observer.isAlive()) observer.removeOnPreDrawListener(this);
+                if (mCreatedNanos != 0) {
+                    mListener.onFirstFrame(System.nanoTime() - mCreatedNanos);
+                    mCreatedNanos = 0;
+                }
+                return true;
+            }
+        });
+    }
+
+    /**
+     * @return the start time to pass to {@link #endBind(long)}, or 0 if this bind is not sampled
+     */
+    public long beginBind() {
+        if (++mBindCount < mSampleRate) return 0;
+        mBindCount = 0;
+        return System.nanoTime();
+    }
+
+    public void endBind(long start) {
+        if (start != 0) mListener.onMonthBound(System.nanoTime() - start);
+    }
+
+    /**
+     * @return the start time to pass to {@link #endDraw(long)}, or 0 if this draw is not sampled
+     */
+    public long beginDraw() {
+        if (++mDrawCount < mSampleRate) return 0;
+        mDrawCount = 0;
+        return System.nanoTime();
+    }
+
+    public void endDraw(long start) {
+        if (start != 0) mListener.onMonthDrawn(System.nanoTime() - start);
+    }
+
+    /**
+     * Measures the latency of the touch until the window of the view draws its next frame
+     * @param view The view receiving the touch
+     * @param event The touch event
+     */
+    public void onTouch(View view, MotionEvent event) {
+        if (mTouchUptime != 0 || ++mTouchCount < mSampleRate) return;
+        mTouchCount = 0;
+        mTouchUptime = event.getEventTime();
+        final ViewTreeObserver observer = view.getViewTreeObserver();
+        observer.addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                if (observer.isAlive()) observer.removeOnPreDrawListener(this);
+                if (mTouchUptime != 0) {
+                    mListener.onTouchToRedraw(
+                            (SystemClock.uptimeMillis() - mTouchUptime) * NANOS_PER_MILLI);
+                    mTouchUptime = 0;
+                }
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Starts counting frames, call from onResume
+     */
+    public void onResume() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) return;
+        if (mFrameMonitor == null) mFrameMonitor = new FrameMonitor();
+        ((FrameMonitor) mFrameMonitor).start();
+    }
+
+    /**
+     * Stops counting frames and reports them, call from onPause
+     */
+    public void onPause() {
+        if (mFrameMonitor == null) return;
+        FrameMonitor monitor = (FrameMonitor) mFrameMonitor;
+        monitor.stop();
+        if (monitor.mFrames > 0) mListener.onSlowFrames(monitor.mSlowFrames, monitor.mFrames);
+    }
+
+    /**
+     * Counts the frames whose vsync came later than {@link #SLOW_FRAME_NANOS} after the previous
+     * one. It keeps a callback posted for every frame, so gaps only occur when the main thread
+     * was busy.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static class FrameMonitor implements Choreographer.FrameCallback {
+        private long mLastFrameNanos;
+        private int mFrames;
+        private int mSlowFrames;
+        private boolean mRunning;
+
+        void start() {
+            if (mRunning) return;
+            mRunning = true;
+            mLastFrameNanos = 0;
+            mFrames = 0;
+            mSlowFrames = 0;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        void stop() {
+            mRunning = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (!mRunning) return;
+            if (mLastFrameNanos != 0) {
+                mFrames++;
+                if (frameTimeNanos - mLastFrameNanos > SLOW_FRAME_NANOS) mSlowFrames++;
+            }
+            mLastFrameNanos = frameTimeNanos;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.kenmeidearu.materialdatetimepicker;
+
+/**
+ * Receives performance measurements of a picker dialog. Register it with
+ * {@code setMetricsListener} on {@link com.kenmeidearu.materialdatetimepicker.date.DatePickerDialog}
+ * or {@link com.kenmeidearu.materialdatetimepicker.time.TimePickerDialog}.
+ *
+ * All callbacks are made on the main thread, in the middle of a frame, so implementations
+ * should only record the values and do any further work later. Durations are in nanoseconds.
+ */
+public interface PickerMetricsListener {
+    /**
+     * @param durationNanos The time from the creation of the dialog until its first frame is drawn
+     */
+    void onFirstFrame(long durationNanos);
+
+    /**
+     * @param durationNanos The time it took to bind a month view of the date picker
+     */
+    void onMonthBound(long durationNanos);
+
+    /**
+     * @param durationNanos The time it took to draw a month view of the date picker
+     */
+    void onMonthDrawn(long durationNanos);
+
+    /**
+     * @param latencyNanos The time from a touch on the clock of the time picker until the next
+     *                     frame is drawn
+     */
+    void onTouchToRedraw(long latencyNanos);
+
+    /**
+     * Called when the dialog is paused, with the frames counted while it was in the foreground.
+     * Only reported on API 16 and up.
+     *
+     * @param slowFrames The number of frames which took longer than {@link PickerMetrics#SLOW_FRAME_NANOS}
+     * @param totalFrames The number of frames
+     */
+    void onSlowFrames(int slowFrames, int totalFrames);
+}
@@ -0,0 +1,234 @@
+package com.kenmeidearu.materialdatetimepicker;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.AsyncTask;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.annotation.LayoutRes;
+import android.util.TypedValue;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import com.kenmeidearu.materialdatetimepicker.date.MonthLabelCache;
+
+import java.lang.ref.WeakReference;
+import java.util.Calendar;
+
+/**
+ * Does the expensive parts of opening a picker dialog ahead of time, e.g. when a screen which
+ * offers a date picker becomes idle. Fonts, theme attributes and labels are loaded on a
+ * background thread, the dialog layouts are inflated while the main thread is idle. The next
+ * {@link com.kenmeidearu.materialdatetimepicker.date.DatePickerDialog} or
+ * {@link com.kenmeidearu.materialdatetimepicker.time.TimePickerDialog} shown in the same activity
+ * and configuration takes the inflated hierarchy instead of inflating its own.
+ *
+ * The layouts are inflated with the dialog theme of the activity, like the inflater of the
+ * dialog. The hierarchies reference the activity, so they are dropped when it is destroyed.
+ * Each hierarchy is used once, call {@link #prewarm(Activity)} again to prepare the next dialog.
+ * All methods must be called on the main thread.
+ */
+public final class PickerPrewarmer {
+    private static final String[] FONTS = {"Roboto-Medium"};
+
+    private static WeakReference<Activity> sActivity;
+    private static Configuration sConfiguration;
+    private static Releaser sReleaser;
+    private static View sDateView;
+    private static View sTimeView;
+    // The dark theme flag resolved with a fallback of false and true
+    private static boolean sThemeResolved;
+    private static boolean sDarkIfFalse;
+    private static boolean sDarkIfTrue;
+    private static int sAccentColor;
+    private static int sGeneration;
+
+    private PickerPrewarmer() {
+    }
+
+    /**
+     * Prepares both a date and a time picker for the given activity
+     * @param activity The activity the dialogs will be shown in
+     */
+    public static void prewarm(Activity activity) {
+        prewarm(activity, true, true);
+    }
+
+    /**
+     * @param activity The activity the dialogs will be shown in
+     * @param date true to prepare a date picker
+     * @param time true to prepare a time picker
+     */
+    public static void prewarm(final Activity activity, final boolean date, final boolean time) {
+        if (activity == null) throw new IllegalArgumentException("activity must not be null");
+        if (!matches(activity)) {
+            clear();
+            sActivity = new WeakReference<>(activity);
+            sConfiguration = new Configuration(activity.getResources().getConfiguration());
+            sReleaser = new Releaser(activity);
+            activity.getApplication().registerActivityLifecycleCallbacks(sReleaser);
+        }
+        final int generation = sGeneration;
+        final Context appContext = activity.getApplicationContext();
+        final Handler main = new Handler(Looper.getMainLooper());
+        AsyncTask.THREAD_POOL_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                for (String font : FONTS) TypefaceHelper.get(appContext, font);
+                final boolean darkIfFalse = Utils.isDarkTheme(activity, false);
+                final boolean darkIfTrue = Utils.isDarkTheme(activity, true);
+                final int accentColor = Utils.getAccentColorFromThemeIfAvailable(activity);
+                if (date) warmLabels(activity);
+                main.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != sGeneration) return;
+                        sDarkIfFalse = darkIfFalse;
+                        sDarkIfTrue = darkIfTrue;
+                        sAccentColor = accentColor;
+                        sThemeResolved = true;
+                    }
+                });
+            }
+        });
+        // Inflation touches the view system, so it waits until the main thread has nothing to do
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                if (generation != sGeneration || !matches(activity)) return false;
+                final LayoutInflater inflater = LayoutInflater.from(getDialogContext(activity));
+                if (date && sDateView == null) {
+                    sDateView = inflater.inflate(R.layout.mdtp_date_picker_dialog, null, false);
+                }
+                if (time && sTimeView == null) {
+                    sTimeView = inflater.inflate(R.layout.mdtp_time_picker_dialog, null, false);
+                }
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Drops everything that was prepared
+     */
+    public static void clear() {
+        sGeneration++;
+        sActivity = null;
+        sConfiguration = null;
+        sDateView = null;
+        sTimeView = null;
+        sThemeResolved = false;
+        if (sReleaser != null) {
+            sReleaser.mApplication.unregisterActivityLifecycleCallbacks(sReleaser);
+            sReleaser = null;
+        }
+    }
+
+    /**
+     * @param activity The activity of the dialog
+     * @param layout The layout of the dialog
+     * @return the prepared hierarchy of the layout, or null if there is none for this activity
+     */
+    public static View takeView(Activity activity, @LayoutRes int layout) {
+        if (!matches(activity)) return null;
+        View view = null;
+        if (layout == R.layout.mdtp_date_picker_dialog) {
+            view = sDateView;
+            sDateView = null;
+        } else if (layout == R.layout.mdtp_time_picker_dialog) {
+            view = sTimeView;
+            sTimeView = null;
+        }
+        return view != null && view.getParent() == null ? view : null;
+    }
+
+    /**
+     * Like {@link Utils#isDarkTheme(Context, boolean)}, without resolving the theme again if it
+     * was prepared for this context
+     */
+    public static boolean isDarkTheme(Context context, boolean current) {
+        if (sThemeResolved && matches(context)) return current ? sDarkIfTrue : sDarkIfFalse;
+        return Utils.isDarkTheme(context, current);
+    }
+
+    /**
+     * Like {@link Utils#getAccentColorFromThemeIfAvailable(Context)}, without resolving the theme
+     * again if it was prepared for this context
+     */
+    public static int getAccentColor(Context context) {
+        if (sThemeResolved && matches(context)) return sAccentColor;
+        return Utils.getAccentColorFromThemeIfAvailable(context);
+    }
+
+    private static boolean matches(Context context) {
+        final Activity activity = sActivity != null ? sActivity.get() : null;
+        return activity != null && activity == context
+                && sConfiguration.equals(activity.getResources().getConfiguration());
+    }
+
+    /**
+     * @return the context a Dialog without an explicit theme wraps the activity in, so the
+     * prepared views are themed like the ones the dialog inflates
+     */
+    private static Context getDialogContext(Activity activity) {
+        final TypedValue outValue = new TypedValue();
+        activity.getTheme().resolveAttribute(android.R.attr.dialogTheme, outValue, true);
+        return new ContextThemeWrapper(activity, outValue.resourceId);
+    }
+
+    private static void warmLabels(Context context) {
+        final Calendar today = Calendar.getInstance();
+        MonthLabelCache.getMonthAndYear(context, today.get(Calendar.YEAR), today.get(Calendar.MONTH));
+        for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++) {
+            MonthLabelCache.getWeekDayLabel(day);
+        }
+        MonthLabelCache.getMonthName(today.get(Calendar.MONTH));
+    }
+
+    /**
+     * Drops the prepared hierarchies once the activity they were inflated for is destroyed
+     */
+    private static class Releaser implements Application.ActivityLifecycleCallbacks {
+        private final Application mApplication;
+        private final WeakReference<Activity> mOwner;
+
+        Releaser(Activity owner) {
+            mApplication = owner.getApplication();
+            mOwner = new WeakReference<>(owner);
+        }
+
+        @Override
+        public void onActivityDestroyed(Activity activity) {
+            if (activity == mOwner.get() && sReleaser == this) clear();
+        }
+
+        @Override
+        public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+        }
+
+        @Override
+        public void onActivityStarted(Activity activity) {
+        }
+
+        @Override
+        public void onActivityResumed(Activity activity) {
+        }
+
+        @Override
+        public void onActivityPaused(Activity activity) {
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+        }
+    }
+}
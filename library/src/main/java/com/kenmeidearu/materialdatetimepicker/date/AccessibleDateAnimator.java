@@ -19,6 +19,8 @@ package com.kenmeidearu.materialdatetimepicker.date;
 import android.content.Context;
 import android.text.format.DateUtils;
 import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewGroup;
 import android.view.accessibility.AccessibilityEvent;
 import android.widget.ViewAnimator;
 
@@ -38,6 +40,27 @@ public class AccessibleDateAnimator extends ViewAnimator {
         mInitialTime = minitialtime;
     }
 
+    /**
+     * Replaces the child at the given index, e.g. a placeholder with the page it stands for.
+     * Unlike removing and adding a view, this keeps the displayed child and its index.
+     *
+     * @param index The index of the child to replace
+     * @param view The new child, it takes over the visibility of the old one
+     */
+    public void replaceView(int index, View view) {
+        final View old = getChildAt(index);
+        if (old == null) throw new IllegalArgumentException("No child at index " + index);
+        view.setVisibility(old.getVisibility());
+        detachViewFromParent(index);
+        removeDetachedView(old, false);
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params == null) params = generateDefaultLayoutParams();
+        else if (!checkLayoutParams(params)) params = generateLayoutParams(params);
+        addViewInLayout(view, index, params);
+        requestLayout();
+        invalidate();
+    }
+
     /**
      * Announce the currently-selected date when launched.
      */
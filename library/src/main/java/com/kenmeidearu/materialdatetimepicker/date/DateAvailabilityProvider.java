@@ -0,0 +1,21 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+/**
+ * Supplies the available days of a month on demand, e.g. from a database query.
+ * The picker asks for a month shortly before it scrolls into view and draws it in
+ * a loading state until the answer arrives, so the whole range never has to be
+ * known up front.
+ */
+public interface DateAvailabilityProvider {
+    /**
+     * Called on a background thread, never on the main thread.
+     * Days which are not returned are drawn as disabled, on top of any other
+     * constraints of the picker. If this throws, every day of the month is treated as
+     * unavailable until the month is asked for again.
+     *
+     * @param year  the year
+     * @param month the month (0-11)
+     * @return the available days of the month (1-31), or null if every day is available
+     */
+    int[] getAvailableDays(int year, int month);
+}
@@ -0,0 +1,256 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+import android.support.annotation.NonNull;
+
+import java.util.Calendar;
+
+/**
+ * An immutable set of date constraints for a {@link DatePickerDialog}. The setters of the
+ * {@link Builder} only convert the Calendars passed in to epoch days, all sorting, merging and
+ * index compilation happens in {@link Builder#build()}, which may be called on any thread, so a
+ * single config can be prepared off the main thread and back any number of dialogs through
+ * {@link DatePickerDialog#newInstance(DatePickerDialog.OnDateSetListener, int, int, int, int, int, boolean, DatePickerConfig)}
+ * or {@link DatePickerDialog#setConfig(DatePickerConfig)}.
+ *
+ * The dates are kept as epoch days, the getters return new Calendars on every call.
+ */
+public final class DatePickerConfig {
+    final int mMinYear;
+    final int mMaxYear;
+    final int mMinDay;
+    final int mMaxDay;
+    final EpochDayIndex mHighlightedIndex;
+    final EpochDayIndex mSelectableIndex;
+    final EpochDayIndex mDisabledIndex;
+    final EpochDayRanges mSelectableRanges;
+    final EpochDayRanges mDisabledRanges;
+    final DateRule mHighlightedRule;
+    final DateRule mSelectableRule;
+    final DateRule mDisabledRule;
+
+    private DatePickerConfig(Builder builder) {
+        mMinYear = builder.mMinYear;
+        mMaxYear = builder.mMaxYear;
+        mMinDay = builder.mMinDay;
+        mMaxDay = builder.mMaxDay;
+        mHighlightedIndex = index(builder.mHighlightedDays);
+        mSelectableIndex = index(builder.mSelectableDays);
+        mDisabledIndex = index(builder.mDisabledDays);
+        mSelectableRanges = builder.mSelectableStarts != null
+                ? EpochDayRanges.of(builder.mSelectableStarts, builder.mSelectableEnds) : null;
+        mDisabledRanges = builder.mDisabledStarts != null
+                ? EpochDayRanges.of(builder.mDisabledStarts, builder.mDisabledEnds) : null;
+        mHighlightedRule = builder.mHighlightedRule;
+        mSelectableRule = builder.mSelectableRule;
+        mDisabledRule = builder.mDisabledRule;
+    }
+
+    public int getMinYear() {
+        return mMinYear;
+    }
+
+    public int getMaxYear() {
+        return mMaxYear;
+    }
+
+    public Calendar getMinDate() {
+        return mMinDay != Integer.MIN_VALUE ? toDay(mMinDay) : null;
+    }
+
+    public Calendar getMaxDate() {
+        return mMaxDay != Integer.MAX_VALUE ? toDay(mMaxDay) : null;
+    }
+
+    public Calendar[] getHighlightedDays() {
+        return toDays(mHighlightedIndex);
+    }
+
+    public Calendar[] getSelectableDays() {
+        return toDays(mSelectableIndex);
+    }
+
+    public Calendar[] getDisabledDays() {
+        return toDays(mDisabledIndex);
+    }
+
+    public DateRule getHighlightedRule() {
+        return mHighlightedRule;
+    }
+
+    public DateRule getSelectableRule() {
+        return mSelectableRule;
+    }
+
+    public DateRule getDisabledRule() {
+        return mDisabledRule;
+    }
+
+    /**
+     * @return new Calendars at midnight for the days of the index in ascending order, or null
+     * if index is null
+     */
+    static Calendar[] toDays(EpochDayIndex index) {
+        if (index == null) return null;
+        Calendar[] days = new Calendar[index.size()];
+        for (int i = 0; i < days.length; i++) days[i] = toDay(index.get(i));
+        return days;
+    }
+
+    private static Calendar toDay(int epochDay) {
+        Calendar day = EpochDayIndex.toCalendar(epochDay, Calendar.getInstance());
+        day.set(Calendar.HOUR_OF_DAY, 0);
+        day.set(Calendar.MINUTE, 0);
+        day.set(Calendar.SECOND, 0);
+        day.set(Calendar.MILLISECOND, 0);
+        return day;
+    }
+
+    private static EpochDayIndex index(int[] days) {
+        // EpochDayIndex sorts in place, keep the array of the builder for the next build
+        return days != null ? EpochDayIndex.of(days.clone()) : null;
+    }
+
+    /**
+     * Collects the constraints of a {@link DatePickerConfig}. The Calendars passed in are only
+     * read by the setters, so they can be reused by the caller. A builder must only be used by
+     * one thread at a time.
+     */
+    public static class Builder {
+        private int mMinYear = DatePickerDialog.DEFAULT_START_YEAR;
+        private int mMaxYear = DatePickerDialog.DEFAULT_END_YEAR;
+        private int mMinDay = Integer.MIN_VALUE;
+        private int mMaxDay = Integer.MAX_VALUE;
+        private int[] mHighlightedDays;
+        private int[] mSelectableDays;
+        private int[] mDisabledDays;
+        private int[] mSelectableStarts;
+        private int[] mSelectableEnds;
+        private int[] mDisabledStarts;
+        private int[] mDisabledEnds;
+        private DateRule mHighlightedRule;
+        private DateRule mSelectableRule;
+        private DateRule mDisabledRule;
+
+        /**
+         * @see DatePickerDialog#setYearRange(int, int)
+         */
+        public Builder setYearRange(int startYear, int endYear) {
+            if (endYear < startYear) {
+                throw new IllegalArgumentException("Year end must be larger than or equal to year start");
+            }
+            mMinYear = startYear;
+            mMaxYear = endYear;
+            return this;
+        }
+
+        /**
+         * @see DatePickerDialog#setMinDate(Calendar)
+         */
+        public Builder setMinDate(Calendar calendar) {
+            mMinDay = calendar != null ? EpochDayIndex.toEpochDay(calendar) : Integer.MIN_VALUE;
+            return this;
+        }
+
+        /**
+         * @see DatePickerDialog#setMaxDate(Calendar)
+         */
+        public Builder setMaxDate(Calendar calendar) {
+            mMaxDay = calendar != null ? EpochDayIndex.toEpochDay(calendar) : Integer.MAX_VALUE;
+            return this;
+        }
+
+        /**
+         * @see DatePickerDialog#setHighlightedDays(Calendar[])
+         */
+        public Builder setHighlightedDays(Calendar[] highlightedDays) {
+            mHighlightedDays = toEpochDays(highlightedDays);
+            return this;
+        }
+
+        /**
+         * @see DatePickerDialog#setSelectableDays(Calendar[])
+         */
+        public Builder setSelectableDays(Calendar[] selectableDays) {
+            mSelectableDays = toEpochDays(selectableDays);
+            return this;
+        }
+
+        /**
+         * @see DatePickerDialog#setDisabledDays(Calendar[])
+         */
+        public Builder setDisabledDays(Calendar[] disabledDays) {
+            mDisabledDays = toEpochDays(disabledDays);
+            return this;
+        }
+
+        /**
+         * @see DatePickerDialog#setSelectableRanges(Calendar[], Calendar[])
+         */
+        public Builder setSelectableRanges(Calendar[] startDays, Calendar[] endDays) {
+            checkRanges(startDays, endDays);
+            mSelectableStarts = startDays != null && endDays != null ? toEpochDays(startDays) : null;
+            mSelectableEnds = mSelectableStarts != null ? toEpochDays(endDays) : null;
+            return this;
+        }
+
+        /**
+         * @see DatePickerDialog#setDisabledRanges(Calendar[], Calendar[])
+         */
+        public Builder setDisabledRanges(Calendar[] startDays, Calendar[] endDays) {
+            checkRanges(startDays, endDays);
+            mDisabledStarts = startDays != null && endDays != null ? toEpochDays(startDays) : null;
+            mDisabledEnds = mDisabledStarts != null ? toEpochDays(endDays) : null;
+            return this;
+        }
+
+        /**
+         * @see DatePickerDialog#setHighlightedRule(DateRule)
+         */
+        public Builder setHighlightedRule(DateRule highlightedRule) {
+            mHighlightedRule = highlightedRule;
+            return this;
+        }
+
+        /**
+         * @see DatePickerDialog#setSelectableRule(DateRule)
+         */
+        public Builder setSelectableRule(DateRule selectableRule) {
+            mSelectableRule = selectableRule;
+            return this;
+        }
+
+        /**
+         * @see DatePickerDialog#setDisabledRule(DateRule)
+         */
+        public Builder setDisabledRule(DateRule disabledRule) {
+            mDisabledRule = disabledRule;
+            return this;
+        }
+
+        /**
+         * Sorts the days and compiles the indexes and ranges. Safe to call on a background thread.
+         * @return the immutable config
+         */
+        @NonNull
+        public DatePickerConfig build() {
+            return new DatePickerConfig(this);
+        }
+
+        private static int[] toEpochDays(Calendar[] days) {
+            if (days == null) return null;
+            int[] epochDays = new int[days.length];
+            for (int i = 0; i < days.length; i++) epochDays[i] = EpochDayIndex.toEpochDay(days[i]);
+            return epochDays;
+        }
+
+        /**
+         * Fails early on ranges {@link EpochDayRanges#of(int[], int[])} would reject in build()
+         */
+        private static void checkRanges(Calendar[] startDays, Calendar[] endDays) {
+            if (startDays == null || endDays == null) return;
+            if (startDays.length != endDays.length) {
+                throw new IllegalArgumentException("Every range needs both a start and an end date");
+            }
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.kenmeidearu.materialdatetimepicker.date;
 
+import com.kenmeidearu.materialdatetimepicker.PickerMetrics;
+
 import java.util.Calendar;
 
 /**
@@ -29,7 +31,7 @@ public interface DatePickerController {
 
     void onDayOfMonthSelected(int year, int month, int day);
 
-    void onTimeSelected(int time,String selected);
+    void onTimeSelected(int time, Timepoint.TYPE type);
 
     void registerOnDateChangedListener(DatePickerDialog.OnDateChangedListener listener);
 
@@ -62,5 +64,12 @@ public interface DatePickerController {
 
     boolean isOutOfRange(int year, int month, int day);
 
+    boolean isHighlighted(int year, int month, int day);
+
     void tryVibrate();
+
+    /**
+     * @return the metrics to report to, or null if no listener is set
+     */
+    PickerMetrics getMetrics();
 }
@@ -25,6 +25,7 @@ import android.content.DialogInterface;
 import android.content.res.Configuration;
 import android.content.res.Resources;
 import android.graphics.Color;
+import android.os.AsyncTask;
 import android.os.Bundle;
 import android.support.annotation.ColorInt;
 import android.support.annotation.NonNull;
@@ -44,23 +45,39 @@ import android.widget.LinearLayout;
 import android.widget.RelativeLayout;
 import android.widget.TextView;
 
+import com.kenmeidearu.materialdatetimepicker.DateFormatterPool;
 import com.kenmeidearu.materialdatetimepicker.HapticFeedbackController;
+import com.kenmeidearu.materialdatetimepicker.PackedInts;
+import com.kenmeidearu.materialdatetimepicker.PickerMetrics;
+import com.kenmeidearu.materialdatetimepicker.PickerMetricsListener;
+import com.kenmeidearu.materialdatetimepicker.PickerPrewarmer;
 import com.kenmeidearu.materialdatetimepicker.R;
 import com.kenmeidearu.materialdatetimepicker.TypefaceHelper;
 import com.kenmeidearu.materialdatetimepicker.Utils;
 
 import java.text.DateFormatSymbols;
-import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashSet;
 import java.util.Locale;
+import java.util.concurrent.Executor;
 
 /**
  * Dialog allowing users to select a date.
  */
 public class DatePickerDialog extends DialogFragment implements
-         OnClickListener, DatePickerController {
+         OnClickListener, DatePickerController, MonthAvailabilityLoader.OnMonthLoadedListener {
+
+    // Flags passed to OnFieldsChangedListener.onFieldsChanged
+    public static final int CHANGED_YEAR = 1;
+    public static final int CHANGED_MONTH = 1 << 1;
+    public static final int CHANGED_DAY = 1 << 2;
+    public static final int CHANGED_HOUR = 1 << 3;
+    public static final int CHANGED_MINUTE = 1 << 4;
+    public static final int CHANGED_SECOND = 1 << 5;
+    // The year and month range or the selectable days changed
+    public static final int CHANGED_CONSTRAINTS = 1 << 6;
+    public static final int CHANGED_DATE = CHANGED_YEAR | CHANGED_MONTH | CHANGED_DAY;
 
     private static final int UNINITIALIZED = -1;
     private static final int MONTH_AND_DAY_VIEW = 0;
@@ -87,10 +104,19 @@ public class DatePickerDialog extends DialogFragment implements
     private static final String KEY_HIGHLIGHTED_DAYS = "highlighted_days";
     private static final String KEY_SELECTABLE_DAYS = "selectable_days";
     private static final String KEY_DISABLED_DAYS = "disabled_days";
+    private static final String KEY_HIGHLIGHTED_RULE = "highlighted_rule";
+    private static final String KEY_SELECTABLE_RULE = "selectable_rule";
+    private static final String KEY_DISABLED_RULE = "disabled_rule";
+    private static final String KEY_SELECTABLE_RANGES = "selectable_ranges";
+    private static final String KEY_DISABLED_RANGES = "disabled_ranges";
     private static final String KEY_THEME_DARK = "theme_dark";
     private static final String KEY_THEME_DARK_CHANGED = "theme_dark_changed";
     private static final String KEY_ACCENT = "accent";
     private static final String KEY_VIBRATE = "vibrate";
+    private static final String KEY_PRERENDER = "prerender";
+    private static final String KEY_RECYCLER_VIEW = "use_recycler_view";
+    private static final String KEY_MINUTE_STEP = "minute_step";
+    private static final String KEY_SECOND_STEP = "second_step";
     private static final String KEY_DISMISS = "dismiss";
     private static final String KEY_AUTO_DISMISS = "auto_dismiss";
     private static final String KEY_DEFAULT_VIEW = "default_view";
@@ -101,8 +127,8 @@ public class DatePickerDialog extends DialogFragment implements
     private static final String KEY_CANCEL_STRING = "cancel_string";
 
 
-    private static final int DEFAULT_START_YEAR = 1900;
-    private static final int DEFAULT_END_YEAR = 2100;
+    static final int DEFAULT_START_YEAR = 1900;
+    static final int DEFAULT_END_YEAR = 2100;
    // private static final int DEFAULT_START_MONTH = 0;
    // private static final int DEFAULT_END_MONTH = 11;
 
@@ -110,9 +136,10 @@ public class DatePickerDialog extends DialogFragment implements
     private static final int ANIMATION_DURATION = 300;
     private static final int ANIMATION_DELAY = 500;
 
-    private static SimpleDateFormat YEAR_FORMAT = new SimpleDateFormat("yyyy", Locale.getDefault());
-    private static SimpleDateFormat MONTH_FORMAT = new SimpleDateFormat("MMM", Locale.getDefault());
-    private static SimpleDateFormat DAY_FORMAT = new SimpleDateFormat("dd", Locale.getDefault());
+    // Formatted through DateFormatterPool, which is thread-safe and follows locale changes
+    private static final String YEAR_FORMAT = "yyyy";
+    private static final String MONTH_FORMAT = "MMM";
+    private static final String DAY_FORMAT = "dd";
 
     private final Calendar mCalendar = trimToMidnight(Calendar.getInstance());
     private OnDateSetListener mCallBack;
@@ -129,7 +156,8 @@ public class DatePickerDialog extends DialogFragment implements
     private TextView mSelectedMonthTextView;
     private TextView mSelectedDayTextView;
     private TextView mYearView;
-    private DayPickerView mDayPickerView;
+    private Button mOkButton;
+    private MonthListView mDayPickerView;
     private YearPickerView mYearPickerView;
     private MonthPickerView mMonthPickerView;
     private TimePickerView mHourPickerView;
@@ -147,13 +175,28 @@ public class DatePickerDialog extends DialogFragment implements
     private String mTitle;
     private Calendar mMinDate;
     private Calendar mMaxDate;
+    // Built from the indexes of mConstraints on demand after setConfig
     private Calendar[] highlightedDays;
     private Calendar[] selectableDays;
     private Calendar[] disabledDays;
+    // The compiled form of the constraints above, which answers all lookups
+    private final DateConstraints mConstraints = new DateConstraints(DEFAULT_START_YEAR, DEFAULT_END_YEAR);
+    private DateAvailabilityProvider mAvailabilityProvider;
+    private Executor mAvailabilityExecutor;
+    // Loads the provider's answers, shared with the month list
+    private MonthAvailabilityLoader mAvailability;
+    // First and last valid dates when ranges are in use, computed on demand
+    private Calendar mRangeStartDate;
+    private Calendar mRangeEndDate;
     private boolean mThemeDark = false;
     private boolean mThemeDarkChanged = false;
     private int mAccentColor = -1;
     private boolean mVibrate = true;
+    private PickerMetrics mMetrics;
+    private boolean mPreRender = false;
+    private boolean mUseRecyclerView = false;
+    private int mMinuteStep = 1;
+    private int mSecondStep = 1;
     private boolean mDismissOnPause = false;
     private boolean mAutoDismiss = false;
     private int mDefaultView = MONTH_AND_DAY_VIEW;
@@ -233,6 +276,19 @@ public class DatePickerDialog extends DialogFragment implements
         void onDateChanged();
     }
 
+    /**
+     * A {@link OnDateChangedListener} which is only told which fields changed, so it can skip
+     * changes it does not show. {@link OnDateChangedListener#onDateChanged()} is still called
+     * when the dialog wants a full refresh.
+     */
+    public interface OnFieldsChangedListener extends OnDateChangedListener {
+
+        /**
+         * @param fields The changed fields, a combination of the CHANGED_* flags
+         */
+        void onFieldsChanged(int fields);
+    }
+
 
     public DatePickerDialog() {
         // Empty constructor required for dialog fragment.
@@ -253,6 +309,22 @@ public class DatePickerDialog extends DialogFragment implements
         return ret;
     }
 
+    /**
+     * @param callBack    How the parent is notified that the date is set.
+     * @param year        The initial year of the dialog.
+     * @param monthOfYear The initial month of the dialog.
+     * @param dayOfMonth  The initial day of the dialog.
+     * @param config      The precompiled constraints of the dialog, see {@link DatePickerConfig}
+     */
+    public static DatePickerDialog newInstance(OnDateSetListener callBack, int year,
+                                               int monthOfYear, int dayOfMonth,
+                                               int hourOfDay, int minute, boolean is24HourMode,
+                                               @NonNull DatePickerConfig config) {
+        DatePickerDialog ret = newInstance(callBack, year, monthOfYear, dayOfMonth, hourOfDay, minute, is24HourMode);
+        ret.setConfig(config);
+        return ret;
+    }
+
     public void initialize(OnDateSetListener callBack, int year, int monthOfYear, int dayOfMonth,
                            int hourOfDay, int minute,int second, boolean is24HourMode) {
         mCallBack = callBack;
@@ -266,10 +338,12 @@ public class DatePickerDialog extends DialogFragment implements
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        if (mMetrics != null) mMetrics.onCreate();
         final Activity activity = getActivity();
         activity.getWindow().setSoftInputMode(
                 WindowManager.LayoutParams.SOFT_INPUT_STATE_ALWAYS_HIDDEN);
         mCurrentView = UNINITIALIZED;
+        if (mAvailability == null) resetAvailability();
         if (savedInstanceState != null && savedInstanceState.containsKey(KEY_INITIAL_TIME)
                 && savedInstanceState.containsKey(KEY_IS_24_HOUR_VIEW)) {
             mCalendar.set(Calendar.YEAR, savedInstanceState.getInt(KEY_SELECTED_YEAR));
@@ -316,15 +390,31 @@ public class DatePickerDialog extends DialogFragment implements
             outState.putInt(KEY_LIST_POSITION_OFFSET, mSecondPickerView.getFirstPositionOffset());
         }
         outState.putInt(KEY_LIST_POSITION, listPosition);
-        outState.putSerializable(KEY_MIN_DATE, mMinDate);
-        outState.putSerializable(KEY_MAX_DATE, mMaxDate);
-        outState.putSerializable(KEY_HIGHLIGHTED_DAYS, highlightedDays);
-        outState.putSerializable(KEY_SELECTABLE_DAYS, selectableDays);
-        outState.putSerializable(KEY_DISABLED_DAYS, disabledDays);
+        // Dates are stored as packed epoch days, serializing Calendars can exceed the binder limit
+        if (mMinDate != null) outState.putInt(KEY_MIN_DATE, mConstraints.getMinDay());
+        if (mMaxDate != null) outState.putInt(KEY_MAX_DATE, mConstraints.getMaxDay());
+        outState.putByteArray(KEY_HIGHLIGHTED_DAYS, packDays(mConstraints.getHighlightedIndex()));
+        outState.putByteArray(KEY_SELECTABLE_DAYS, packDays(mConstraints.getSelectableIndex()));
+        outState.putByteArray(KEY_DISABLED_DAYS, packDays(mConstraints.getDisabledIndex()));
+        outState.putSerializable(KEY_HIGHLIGHTED_RULE, mConstraints.getHighlightedRule());
+        outState.putSerializable(KEY_SELECTABLE_RULE, mConstraints.getSelectableRule());
+        outState.putSerializable(KEY_DISABLED_RULE, mConstraints.getDisabledRule());
+        final EpochDayRanges selectableRanges = mConstraints.getSelectableRanges();
+        if (selectableRanges != null) {
+            outState.putByteArray(KEY_SELECTABLE_RANGES, PackedInts.pack(selectableRanges.toBounds()));
+        }
+        final EpochDayRanges disabledRanges = mConstraints.getDisabledRanges();
+        if (disabledRanges != null) {
+            outState.putByteArray(KEY_DISABLED_RANGES, PackedInts.pack(disabledRanges.toBounds()));
+        }
         outState.putBoolean(KEY_THEME_DARK, mThemeDark);
         outState.putBoolean(KEY_THEME_DARK_CHANGED, mThemeDarkChanged);
         outState.putInt(KEY_ACCENT, mAccentColor);
         outState.putBoolean(KEY_VIBRATE, mVibrate);
+        outState.putBoolean(KEY_PRERENDER, mPreRender);
+        outState.putBoolean(KEY_RECYCLER_VIEW, mUseRecyclerView);
+        outState.putInt(KEY_MINUTE_STEP, mMinuteStep);
+        outState.putInt(KEY_SECOND_STEP, mSecondStep);
         outState.putBoolean(KEY_DISMISS, mDismissOnPause);
         outState.putBoolean(KEY_AUTO_DISMISS, mAutoDismiss);
         outState.putInt(KEY_DEFAULT_VIEW, mDefaultView);
@@ -348,7 +438,9 @@ public class DatePickerDialog extends DialogFragment implements
         // All options have been set at this point: round the initial selection if necessary
         setToNearestDate(mCalendar);
 
-        View view = inflater.inflate(R.layout.mdtp_date_picker_dialog, container, false);
+        // The prepared hierarchy has the dialog theme, it only fits when shown as a dialog
+        View view = getShowsDialog() ? PickerPrewarmer.takeView(getActivity(), R.layout.mdtp_date_picker_dialog) : null;
+        if (view == null) view = inflater.inflate(R.layout.mdtp_date_picker_dialog, container, false);
         timeDisplayView=(RelativeLayout) view.findViewById(R.id.time_display);
         mDayOfWeekView = (TextView) view.findViewById(R.id.date_picker_header);
         mMonthAndDayView = (LinearLayout) view.findViewById(R.id.date_picker_month_and_year);
@@ -370,15 +462,29 @@ public class DatePickerDialog extends DialogFragment implements
             currentView = savedInstanceState.getInt(KEY_CURRENT_VIEW);
             listPosition = savedInstanceState.getInt(KEY_LIST_POSITION);
             listPositionOffset = savedInstanceState.getInt(KEY_LIST_POSITION_OFFSET);
-            mMinDate = (Calendar) savedInstanceState.getSerializable(KEY_MIN_DATE);
-            mMaxDate = (Calendar) savedInstanceState.getSerializable(KEY_MAX_DATE);
-            highlightedDays = (Calendar[]) savedInstanceState.getSerializable(KEY_HIGHLIGHTED_DAYS);
-            selectableDays = (Calendar[]) savedInstanceState.getSerializable(KEY_SELECTABLE_DAYS);
-            disabledDays = (Calendar[]) savedInstanceState.getSerializable(KEY_DISABLED_DAYS);
+            mMinDate = savedInstanceState.containsKey(KEY_MIN_DATE)
+                    ? toDay(savedInstanceState.getInt(KEY_MIN_DATE)) : null;
+            mMaxDate = savedInstanceState.containsKey(KEY_MAX_DATE)
+                    ? toDay(savedInstanceState.getInt(KEY_MAX_DATE)) : null;
+            highlightedDays = unpackDays(savedInstanceState.getByteArray(KEY_HIGHLIGHTED_DAYS));
+            selectableDays = unpackDays(savedInstanceState.getByteArray(KEY_SELECTABLE_DAYS));
+            disabledDays = unpackDays(savedInstanceState.getByteArray(KEY_DISABLED_DAYS));
+            mConstraints.setHighlightedRule((DateRule) savedInstanceState.getSerializable(KEY_HIGHLIGHTED_RULE));
+            mConstraints.setSelectableRule((DateRule) savedInstanceState.getSerializable(KEY_SELECTABLE_RULE));
+            mConstraints.setDisabledRule((DateRule) savedInstanceState.getSerializable(KEY_DISABLED_RULE));
+            mConstraints.setSelectableRanges(EpochDayRanges.ofBounds(
+                    PackedInts.unpack(savedInstanceState.getByteArray(KEY_SELECTABLE_RANGES))));
+            mConstraints.setDisabledRanges(EpochDayRanges.ofBounds(
+                    PackedInts.unpack(savedInstanceState.getByteArray(KEY_DISABLED_RANGES))));
+            compileConstraints();
             mThemeDark = savedInstanceState.getBoolean(KEY_THEME_DARK);
             mThemeDarkChanged = savedInstanceState.getBoolean(KEY_THEME_DARK_CHANGED);
             mAccentColor = savedInstanceState.getInt(KEY_ACCENT);
             mVibrate = savedInstanceState.getBoolean(KEY_VIBRATE);
+            mPreRender = savedInstanceState.getBoolean(KEY_PRERENDER);
+            mUseRecyclerView = savedInstanceState.getBoolean(KEY_RECYCLER_VIEW);
+            mMinuteStep = savedInstanceState.getInt(KEY_MINUTE_STEP, 1);
+            mSecondStep = savedInstanceState.getInt(KEY_SECOND_STEP, 1);
             mDismissOnPause = savedInstanceState.getBoolean(KEY_DISMISS);
             mAutoDismiss = savedInstanceState.getBoolean(KEY_AUTO_DISMISS);
             mTitle = savedInstanceState.getString(KEY_TITLE);
@@ -389,16 +495,12 @@ public class DatePickerDialog extends DialogFragment implements
         }
 
         final Activity activity = getActivity();
-        mDayPickerView = new SimpleDayPickerView(activity, this);
-        mYearPickerView = new YearPickerView(activity, this);
-        mMonthPickerView = new MonthPickerView(activity, this);
-        mHourPickerView =new TimePickerView(activity,this,"HOUR",mIs24HourMode);
-        mMinutePickerView =new TimePickerView(activity,this,"MINUTE",mIs24HourMode);
-        mSecondPickerView =new TimePickerView(activity,this,"SECOND",mIs24HourMode);
+        // The pages are built when they are first shown, drop the ones of a previous view
+        releasePages();
 
         // if theme mode has not been set by java code, check if it is specified in Style.xml
         if (!mThemeDarkChanged) {
-            mThemeDark = Utils.isDarkTheme(activity, mThemeDark);
+            mThemeDark = PickerPrewarmer.isDarkTheme(activity, mThemeDark);
         }
 
         Resources res = getResources();
@@ -529,12 +631,8 @@ public class DatePickerDialog extends DialogFragment implements
         view.setBackgroundColor(ContextCompat.getColor(activity, bgColorResource));
 
         mAnimator = (AccessibleDateAnimator) view.findViewById(R.id.animator);
-        mAnimator.addView(mDayPickerView);
-        mAnimator.addView(mYearPickerView);
-        mAnimator.addView(mMonthPickerView);
-        mAnimator.addView(mHourPickerView);
-        mAnimator.addView(mMinutePickerView);
-        mAnimator.addView(mSecondPickerView);
+        // Placeholders keep the page indexes, see ensurePage
+        for (int i = MONTH_AND_DAY_VIEW; i <= SECOND_INDEX; i++) mAnimator.addView(new View(activity));
         mAnimator.setTimeMilis(mInitialTime);
         mAnimator.setDateMillis(mCalendar.getTimeInMillis());
         // TODO: Replace with animation decided upon by the design team.
@@ -546,8 +644,8 @@ public class DatePickerDialog extends DialogFragment implements
         animation2.setDuration(ANIMATION_DURATION);
         mAnimator.setOutAnimation(animation2);
 
-        Button okButton = (Button) view.findViewById(R.id.ok);
-        okButton.setOnClickListener(new OnClickListener() {
+        mOkButton = (Button) view.findViewById(R.id.ok);
+        mOkButton.setOnClickListener(new OnClickListener() {
 
             @Override
             public void onClick(View v) {
@@ -556,9 +654,9 @@ public class DatePickerDialog extends DialogFragment implements
                 dismiss();
             }
         });
-        okButton.setTypeface(TypefaceHelper.get(activity, "Roboto-Medium"));
-        if (mOkString != null) okButton.setText(mOkString);
-        else okButton.setText(mOkResid);
+        mOkButton.setTypeface(TypefaceHelper.get(activity, "Roboto-Medium"));
+        if (mOkString != null) mOkButton.setText(mOkString);
+        else mOkButton.setText(mOkResid);
 
         Button cancelButton = (Button) view.findViewById(R.id.cancel);
         cancelButton.setOnClickListener(new OnClickListener() {
@@ -575,12 +673,12 @@ public class DatePickerDialog extends DialogFragment implements
 
         // If an accent color has not been set manually, get it from the context
         if (mAccentColor == -1) {
-            mAccentColor = Utils.getAccentColorFromThemeIfAvailable(getActivity());
+            mAccentColor = PickerPrewarmer.getAccentColor(getActivity());
         }
         if (mDayOfWeekView != null)
             mDayOfWeekView.setBackgroundColor(Utils.darkenColor(mAccentColor));
         view.findViewById(R.id.day_picker_selected_date_layout).setBackgroundColor(mAccentColor);
-        okButton.setTextColor(mAccentColor);
+        mOkButton.setTextColor(mAccentColor);
         cancelButton.setTextColor(mAccentColor);
 
         if (getDialog() == null) {
@@ -607,6 +705,7 @@ public class DatePickerDialog extends DialogFragment implements
         }
 
         mHapticFeedbackController = new HapticFeedbackController(activity);
+        if (mMetrics != null) mMetrics.watchFirstFrame(view);
         return view;
     }
 
@@ -632,15 +731,25 @@ public class DatePickerDialog extends DialogFragment implements
     public void onResume() {
         super.onResume();
         mHapticFeedbackController.start();
+        if (mMetrics != null) mMetrics.onResume();
     }
 
     @Override
     public void onPause() {
         super.onPause();
         mHapticFeedbackController.stop();
+        if (mMetrics != null) mMetrics.onPause();
         if (mDismissOnPause) dismiss();
     }
 
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        // Drops the cached months and results which are still loading
+        if (mAvailability != null) mAvailability.release();
+        mAvailability = null;
+    }
+
     @Override
     public void onCancel(DialogInterface dialog) {
         super.onCancel(dialog);
@@ -652,9 +761,69 @@ public class DatePickerDialog extends DialogFragment implements
         super.onDismiss(dialog);
         if (mOnDismissListener != null) mOnDismissListener.onDismiss(dialog);
     }
+    /**
+     * Builds the page at the given index of the animator the first time it is shown, so pages
+     * which are never opened, like the time lists of a date only picker, cost nothing.
+     */
+    private void ensurePage(int index) {
+        final Activity activity = getActivity();
+        final View page;
+        switch (index) {
+            case MONTH_AND_DAY_VIEW:
+                if (mDayPickerView != null) return;
+                if (mUseRecyclerView) mDayPickerView = new RecyclerDayPickerView(activity, this);
+                else mDayPickerView = new SimpleDayPickerView(activity, this);
+                if (mAvailability != null) mDayPickerView.setAvailabilityLoader(mAvailability);
+                mDayPickerView.setPreRenderEnabled(mPreRender);
+                page = (View) mDayPickerView;
+                break;
+            case YEAR_VIEW:
+                if (mYearPickerView != null) return;
+                page = mYearPickerView = new YearPickerView(activity, this);
+                break;
+            case MONTH_VIEW:
+                if (mMonthPickerView != null) return;
+                page = mMonthPickerView = new MonthPickerView(activity, this);
+                break;
+            case HOUR_INDEX:
+                if (mHourPickerView != null) return;
+                page = mHourPickerView = new TimePickerView(activity, this, Timepoint.TYPE.HOUR, mIs24HourMode);
+                break;
+            case MINUTE_INDEX:
+                if (mMinutePickerView != null) return;
+                page = mMinutePickerView = new TimePickerView(activity, this, Timepoint.TYPE.MINUTE, mIs24HourMode);
+                mMinutePickerView.setStep(mMinuteStep);
+                break;
+            case SECOND_INDEX:
+                if (mSecondPickerView != null) return;
+                page = mSecondPickerView = new TimePickerView(activity, this, Timepoint.TYPE.SECOND, mIs24HourMode);
+                mSecondPickerView.setStep(mSecondStep);
+                break;
+            default:
+                return;
+        }
+        mAnimator.replaceView(index, page);
+    }
+
+    private void releasePages() {
+        if (mDayPickerView != null) unregisterOnDateChangedListener(mDayPickerView);
+        if (mYearPickerView != null) unregisterOnDateChangedListener(mYearPickerView);
+        if (mMonthPickerView != null) unregisterOnDateChangedListener(mMonthPickerView);
+        if (mHourPickerView != null) unregisterOnDateChangedListener(mHourPickerView);
+        if (mMinutePickerView != null) unregisterOnDateChangedListener(mMinutePickerView);
+        if (mSecondPickerView != null) unregisterOnDateChangedListener(mSecondPickerView);
+        mDayPickerView = null;
+        mYearPickerView = null;
+        mMonthPickerView = null;
+        mHourPickerView = null;
+        mMinutePickerView = null;
+        mSecondPickerView = null;
+    }
+
     // Show either Hours or Minutes.
 
     private void setCurrentView(final int viewIndex) {
+        ensurePage(viewIndex);
         long millis = mCalendar.getTimeInMillis();
         switch (viewIndex) {
             case MONTH_AND_DAY_VIEW:
@@ -711,7 +880,7 @@ public class DatePickerDialog extends DialogFragment implements
                 }
                 pulseAnimator.start();
 
-                CharSequence monthString = MONTH_FORMAT.format(millis);
+                CharSequence monthString = DateFormatterPool.format(MONTH_FORMAT, millis);
                 mAnimator.setContentDescription(mMonthPickerDescription + ": " + monthString);
                 Utils.tryAccessibilityAnnounce(mAnimator, mSelectMonth);
                 break;
@@ -739,7 +908,7 @@ public class DatePickerDialog extends DialogFragment implements
                 }
                 pulseAnimator.start();
 
-                CharSequence yearString = YEAR_FORMAT.format(millis);
+                CharSequence yearString = DateFormatterPool.format(YEAR_FORMAT, millis);
                 mAnimator.setContentDescription(mYearPickerDescription + ": " + yearString);
                 Utils.tryAccessibilityAnnounce(mAnimator, mSelectYear);
                 break;
@@ -767,7 +936,7 @@ public class DatePickerDialog extends DialogFragment implements
                 }
                 pulseAnimator.start();
 
-                CharSequence hourString = MONTH_FORMAT.format(millis);
+                CharSequence hourString = DateFormatterPool.format(MONTH_FORMAT, millis);
                 mAnimator.setContentDescription(mHourPickerDescription + ": " + hourString);
                 Utils.tryAccessibilityAnnounce(mAnimator, mSelectHours);
                 break;
@@ -795,7 +964,7 @@ public class DatePickerDialog extends DialogFragment implements
                 }
                 pulseAnimator.start();
 
-                CharSequence minuteString = MONTH_FORMAT.format(millis);
+                CharSequence minuteString = DateFormatterPool.format(MONTH_FORMAT, millis);
                 mAnimator.setContentDescription(mMinutePickerDescription + ": " + minuteString);
                 Utils.tryAccessibilityAnnounce(mAnimator, mSelectMinutes);
                 break;
@@ -823,7 +992,7 @@ public class DatePickerDialog extends DialogFragment implements
                 }
                 pulseAnimator.start();
 
-                CharSequence secondString = MONTH_FORMAT.format(millis);
+                CharSequence secondString = DateFormatterPool.format(MONTH_FORMAT, millis);
                 mAnimator.setContentDescription(mSecondPickerDescription + ": " + secondString);
                 Utils.tryAccessibilityAnnounce(mAnimator, mSelectSeconds);
                 break;
@@ -843,8 +1012,8 @@ public class DatePickerDialog extends DialogFragment implements
 
        if (mSelectedMonthTextView != null)  mSelectedMonthTextView.setText(mCalendar.getDisplayName(Calendar.MONTH, Calendar.SHORT,
                 Locale.getDefault()).toUpperCase(Locale.getDefault()));
-       if (mSelectedDayTextView != null)  mSelectedDayTextView.setText(DAY_FORMAT.format(mCalendar.getTime()));
-       if (mYearView != null) mYearView.setText(YEAR_FORMAT.format(mCalendar.getTime()));
+       if (mSelectedDayTextView != null)  mSelectedDayTextView.setText(DateFormatterPool.format(DAY_FORMAT, mCalendar.getTime()));
+       if (mYearView != null) mYearView.setText(DateFormatterPool.format(YEAR_FORMAT, mCalendar.getTime()));
         setHour(mInitialTime.getHour());
         setMinute(mInitialTime.getMinute());
         setSecond(mInitialTime.getSecond());
@@ -863,6 +1032,7 @@ public class DatePickerDialog extends DialogFragment implements
             String fullDateText = DateUtils.formatDateTime(getActivity(), millis, flags);
             Utils.tryAccessibilityAnnounce(mAnimator, fullDateText);
         }
+        updateOkButton();
     }
 
     /**
@@ -874,6 +1044,84 @@ public class DatePickerDialog extends DialogFragment implements
         mVibrate = vibrate;
     }
 
+    /**
+     * Set a listener which receives performance measurements of this picker, timing every
+     * measured event. Must be called before the dialog is shown.
+     *
+     * @param listener The listener, or null to stop measuring
+     */
+    @SuppressWarnings("unused")
+    public void setMetricsListener(PickerMetricsListener listener) {
+        setMetricsListener(listener, 1);
+    }
+
+    /**
+     * Set a listener which receives performance measurements of this picker, timing only one in
+     * every sampleRate binds, draws and touches. Must be called before the dialog is shown.
+     *
+     * @param listener The listener, or null to stop measuring
+     * @param sampleRate Time one in this many events
+     */
+    @SuppressWarnings("unused")
+    public void setMetricsListener(PickerMetricsListener listener, int sampleRate) {
+        mMetrics = listener == null ? null : new PickerMetrics(listener, sampleRate);
+    }
+
+    /**
+     * Set whether the months next to the visible ones should be rendered into bitmaps on a worker
+     * thread, so flinging through the month list draws those bitmaps instead of the grids.
+     * Costs a few bitmaps of memory, so it is off by default. Whether it saves frames depends on
+     * the device, compare the slow frames of both modes with the DatePickerBenchmark of the
+     * sample app before turning it on.
+     *
+     * @param preRender true to pre-render months while scrolling
+     */
+    @SuppressWarnings("unused")
+    public void setPreRenderMonths(boolean preRender) {
+        mPreRender = preRender;
+        if (mDayPickerView != null) mDayPickerView.setPreRenderEnabled(preRender);
+    }
+
+    /**
+     * Set whether the month list should be a RecyclerView, which shares its month views with
+     * every other picker of the activity instead of creating new ones for each dialog.
+     * Must be called before the dialog is shown.
+     *
+     * @param useRecyclerView true to use a {@link RecyclerDayPickerView}
+     */
+    @SuppressWarnings("unused")
+    public void setUseRecyclerView(boolean useRecyclerView) {
+        mUseRecyclerView = useRecyclerView;
+    }
+
+    /**
+     * Set the distance between the rows of the minute list, e.g. 15 to only offer quarter hours
+     *
+     * @param minuteStep The step in minutes, must divide 60
+     */
+    @SuppressWarnings("unused")
+    public void setMinuteStep(int minuteStep) {
+        checkTimeStep(minuteStep);
+        mMinuteStep = minuteStep;
+        if (mMinutePickerView != null) mMinutePickerView.setStep(minuteStep);
+    }
+
+    /**
+     * Set the distance between the rows of the second list
+     *
+     * @param secondStep The step in seconds, must divide 60
+     */
+    @SuppressWarnings("unused")
+    public void setSecondStep(int secondStep) {
+        checkTimeStep(secondStep);
+        mSecondStep = secondStep;
+        if (mSecondPickerView != null) mSecondPickerView.setStep(secondStep);
+    }
+
+    private static void checkTimeStep(int step) {
+        if (step < 1 || 60 % step != 0) throw new IllegalArgumentException("step must divide 60");
+    }
+
     /**
      * Set whether the picker should dismiss itself when being paused or whether it should try to survive an orientation change
      *
@@ -974,6 +1222,36 @@ public class DatePickerDialog extends DialogFragment implements
         }
     }
 
+    /**
+     * Replaces all date constraints with the ones of a precompiled config. Nothing is sorted or
+     * indexed on the calling thread, the config already holds the compiled indexes.
+     *
+     * @param config The config built by a {@link DatePickerConfig.Builder}
+     */
+    @SuppressWarnings("unused")
+    public void setConfig(@NonNull DatePickerConfig config) {
+        mMinYear = config.mMinYear;
+        mMaxYear = config.mMaxYear;
+        // Copies, the config is shared with other dialogs. The days are built by their getters.
+        mMinDate = config.getMinDate();
+        mMaxDate = config.getMaxDate();
+        highlightedDays = null;
+        selectableDays = null;
+        disabledDays = null;
+        mConstraints.setYearRange(mMinYear, mMaxYear);
+        mConstraints.setMinDay(config.mMinDay);
+        mConstraints.setMaxDay(config.mMaxDay);
+        mConstraints.setHighlightedIndex(config.mHighlightedIndex);
+        mConstraints.setSelectableIndex(config.mSelectableIndex);
+        mConstraints.setDisabledIndex(config.mDisabledIndex);
+        mConstraints.setSelectableRanges(config.mSelectableRanges);
+        mConstraints.setDisabledRanges(config.mDisabledRanges);
+        mConstraints.setHighlightedRule(config.mHighlightedRule);
+        mConstraints.setSelectableRule(config.mSelectableRule);
+        mConstraints.setDisabledRule(config.mDisabledRule);
+        onConstraintsChanged();
+    }
+
     @SuppressWarnings("unused")
     public void setYearRange(int startYear, int endYear) {
         if (endYear < startYear) {
@@ -982,9 +1260,8 @@ public class DatePickerDialog extends DialogFragment implements
 
         mMinYear = startYear;
         mMaxYear = endYear;
-        if (mDayPickerView != null) {
-            mDayPickerView.onChange();
-        }
+        mConstraints.setYearRange(startYear, endYear);
+        onConstraintsChanged();
     }
 
     /**
@@ -996,10 +1273,8 @@ public class DatePickerDialog extends DialogFragment implements
     @SuppressWarnings("unused")
     public void setMinDate(Calendar calendar) {
         mMinDate = trimToMidnight(calendar);
-
-        if (mDayPickerView != null) {
-            mDayPickerView.onChange();
-        }
+        mConstraints.setMinDay(EpochDayIndex.toEpochDay(mMinDate));
+        onConstraintsChanged();
     }
 
     /**
@@ -1019,10 +1294,8 @@ public class DatePickerDialog extends DialogFragment implements
     @SuppressWarnings("unused")
     public void setMaxDate(Calendar calendar) {
         mMaxDate = trimToMidnight(calendar);
-
-        if (mDayPickerView != null) {
-            mDayPickerView.onChange();
-        }
+        mConstraints.setMaxDay(EpochDayIndex.toEpochDay(mMaxDate));
+        onConstraintsChanged();
     }
 
     /**
@@ -1043,7 +1316,8 @@ public class DatePickerDialog extends DialogFragment implements
         Arrays.sort(highlightedDays);
         for (Calendar highlightedDay : highlightedDays) trimToMidnight(highlightedDay);
         this.highlightedDays = highlightedDays;
-        if (mDayPickerView != null) mDayPickerView.onChange();
+        mConstraints.setHighlightedIndex(EpochDayIndex.of(highlightedDays));
+        onConstraintsChanged();
     }
 
     /**
@@ -1051,6 +1325,7 @@ public class DatePickerDialog extends DialogFragment implements
      */
     @Override
     public Calendar[] getHighlightedDays() {
+        if (highlightedDays == null) highlightedDays = DatePickerConfig.toDays(mConstraints.getHighlightedIndex());
         return highlightedDays;
     }
 
@@ -1065,7 +1340,8 @@ public class DatePickerDialog extends DialogFragment implements
         Arrays.sort(selectableDays);
         for (Calendar selectableDay : selectableDays) trimToMidnight(selectableDay);
         this.selectableDays = selectableDays;
-        if (mDayPickerView != null) mDayPickerView.onChange();
+        mConstraints.setSelectableIndex(EpochDayIndex.of(selectableDays));
+        onConstraintsChanged();
     }
 
     /**
@@ -1073,6 +1349,7 @@ public class DatePickerDialog extends DialogFragment implements
      */
     @SuppressWarnings("unused")
     public Calendar[] getSelectableDays() {
+        if (selectableDays == null) selectableDays = DatePickerConfig.toDays(mConstraints.getSelectableIndex());
         return selectableDays;
     }
 
@@ -1087,7 +1364,8 @@ public class DatePickerDialog extends DialogFragment implements
         Arrays.sort(disabledDays);
         for (Calendar disabledDay : disabledDays) trimToMidnight(disabledDay);
         this.disabledDays = disabledDays;
-        if (mDayPickerView != null) mDayPickerView.onChange();
+        mConstraints.setDisabledIndex(EpochDayIndex.of(disabledDays));
+        onConstraintsChanged();
     }
 
     /**
@@ -1095,9 +1373,179 @@ public class DatePickerDialog extends DialogFragment implements
      */
     @SuppressWarnings("unused")
     public Calendar[] getDisabledDays() {
+        if (disabledDays == null) disabledDays = DatePickerConfig.toDays(mConstraints.getDisabledIndex());
         return disabledDays;
     }
 
+    /**
+     * Sets a list of date ranges which are the only valid selections. Overlapping ranges are merged,
+     * so a range costs a single entry no matter how many days it spans.
+     * Stacks with setSelectableDays(), setMinDate() and setMaxDate()
+     *
+     * @param startDays an Array of Calendar Objects containing the first day of every range
+     * @param endDays   an Array of Calendar Objects containing the last day (inclusive) of every range
+     */
+    @SuppressWarnings("unused")
+    public void setSelectableRanges(Calendar[] startDays, Calendar[] endDays) {
+        mConstraints.setSelectableRanges(EpochDayRanges.of(startDays, endDays));
+        onConstraintsChanged();
+    }
+
+    /**
+     * Sets a list of date ranges that are not selectable in the picker, e.g. vacations or maintenance
+     * windows. Overlapping ranges are merged, so a range costs a single entry no matter how many days it spans.
+     * Stacks with setDisabledDays(), setMinDate() and setMaxDate()
+     *
+     * @param startDays an Array of Calendar Objects containing the first day of every range
+     * @param endDays   an Array of Calendar Objects containing the last day (inclusive) of every range
+     */
+    @SuppressWarnings("unused")
+    public void setDisabledRanges(Calendar[] startDays, Calendar[] endDays) {
+        mConstraints.setDisabledRanges(EpochDayRanges.of(startDays, endDays));
+        onConstraintsChanged();
+    }
+
+    /**
+     * Sets a rule describing the dates which should be highlighted when the picker is drawn.
+     * The rule is only evaluated for the months that are displayed, so it can cover any range of years.
+     * Stacks with setHighlightedDays()
+     *
+     * @param highlightedRule a DateRule matching the dates to be highlighted, or null to clear it
+     */
+    @SuppressWarnings("unused")
+    public void setHighlightedRule(DateRule highlightedRule) {
+        mConstraints.setHighlightedRule(highlightedRule);
+        onConstraintsChanged();
+    }
+
+    /**
+     * @return The DateRule matching the highlighted dates. null if no rule is set
+     */
+    @SuppressWarnings("unused")
+    public DateRule getHighlightedRule() {
+        return mConstraints.getHighlightedRule();
+    }
+
+    /**
+     * Sets a rule describing the only dates which are valid selections.
+     * The rule is only evaluated for the months that are displayed, so it can cover any range of years.
+     * Stacks with setSelectableDays(): a date has to satisfy both to be selectable
+     *
+     * @param selectableRule a DateRule matching the selectable dates, or null to clear it
+     */
+    @SuppressWarnings("unused")
+    public void setSelectableRule(DateRule selectableRule) {
+        mConstraints.setSelectableRule(selectableRule);
+        onConstraintsChanged();
+    }
+
+    /**
+     * @return The DateRule matching the selectable dates. null if no rule is set
+     */
+    @SuppressWarnings("unused")
+    public DateRule getSelectableRule() {
+        return mConstraints.getSelectableRule();
+    }
+
+    /**
+     * Sets a rule describing dates that are not selectable in the picker, e.g. weekends and holidays.
+     * The rule is only evaluated for the months that are displayed, so it can cover any range of years.
+     * Stacks with setDisabledDays()
+     *
+     * @param disabledRule a DateRule matching the disabled dates, or null to clear it
+     */
+    @SuppressWarnings("unused")
+    public void setDisabledRule(DateRule disabledRule) {
+        mConstraints.setDisabledRule(disabledRule);
+        onConstraintsChanged();
+    }
+
+    /**
+     * @return The DateRule matching the disabled dates. null if no rule is set
+     */
+    @SuppressWarnings("unused")
+    public DateRule getDisabledRule() {
+        return mConstraints.getDisabledRule();
+    }
+
+    /**
+     * Sets a provider which is queried for the available days of every month shortly before the
+     * month scrolls into view, so availability does not have to be loaded up front.
+     * The provider is called on {@link AsyncTask#THREAD_POOL_EXECUTOR} and months are drawn in a
+     * loading state until their answer arrives. Stacks with all other constraints: the selection
+     * is moved off unavailable days and the OK button is disabled while the month of the
+     * selection is loading.
+     * The provider is not saved with the instance state and has to be set again after a restore.
+     *
+     * @param provider The provider, or null to remove it
+     */
+    @SuppressWarnings("unused")
+    public void setDateAvailabilityProvider(DateAvailabilityProvider provider) {
+        setDateAvailabilityProvider(provider, AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * Sets a provider which is queried for the available days of every month shortly before the
+     * month scrolls into view, see {@link #setDateAvailabilityProvider(DateAvailabilityProvider)}
+     *
+     * @param provider The provider, or null to remove it
+     * @param executor The executor on which the provider is called
+     */
+    @SuppressWarnings("unused")
+    public void setDateAvailabilityProvider(DateAvailabilityProvider provider, @NonNull Executor executor) {
+        mAvailabilityProvider = provider;
+        mAvailabilityExecutor = executor;
+        resetAvailability();
+        updateOkButton();
+    }
+
+    /**
+     * Replaces the loader of the availability with one for the current provider
+     */
+    private void resetAvailability() {
+        if (mAvailability != null) mAvailability.release();
+        mAvailability = null;
+        if (mAvailabilityProvider != null) {
+            mAvailability = new MonthAvailabilityLoader(mAvailabilityProvider, mAvailabilityExecutor);
+            mAvailability.addOnMonthLoadedListener(this);
+        }
+        if (mDayPickerView != null) mDayPickerView.setAvailabilityLoader(mAvailability);
+    }
+
+    /**
+     * Moves the selection off days the provider marked unavailable once the month of the
+     * selection has loaded
+     */
+    @Override
+    public void onMonthLoaded(int year, int month) {
+        if (year != mCalendar.get(Calendar.YEAR) || month != mCalendar.get(Calendar.MONTH)) return;
+        // The view is not created yet, onCreateView rounds the selection itself
+        if (mAnimator == null) return;
+        final int day = EpochDayIndex.toEpochDay(mCalendar);
+        setToNearestDate(mCalendar);
+        if (EpochDayIndex.toEpochDay(mCalendar) != day) updatePickers(CHANGED_DATE);
+        updateDisplay(false);
+    }
+
+    /**
+     * Disables the OK button while the month of the selection is loading or the selected day is
+     * unavailable, so only days the provider confirmed can be set
+     */
+    private void updateOkButton() {
+        if (mOkButton == null) return;
+        boolean enabled = true;
+        if (mAvailability != null) {
+            final Integer available = mAvailability.get(mCalendar.get(Calendar.YEAR), mCalendar.get(Calendar.MONTH));
+            enabled = available != null && (available & 1 << (mCalendar.get(Calendar.DAY_OF_MONTH) - 1)) != 0;
+        }
+        mOkButton.setEnabled(enabled);
+    }
+
+    @SuppressWarnings("unused")
+    public DateAvailabilityProvider getDateAvailabilityProvider() {
+        return mAvailabilityProvider;
+    }
+
     /**
      * Set a title to be displayed instead of the weekday
      *
@@ -1210,8 +1658,8 @@ public class DatePickerDialog extends DialogFragment implements
     public void onYearSelected(int year) {
         mCalendar.set(Calendar.YEAR, year);
         adjustDayInMonthIfNeeded(mCalendar);
-        updatePickers();
-        mMonthPickerView.init();
+        updatePickers(CHANGED_YEAR | CHANGED_DAY);
+        if (mMonthPickerView != null) mMonthPickerView.init();
         if(!mOnlyMonthYear) {
             setCurrentView(MONTH_AND_DAY_VIEW);
         }else {
@@ -1221,24 +1669,24 @@ public class DatePickerDialog extends DialogFragment implements
     }
 
     @Override
-    public void onTimeSelected(int value,String type) {
-        switch (type.toUpperCase()){
-            case "HOUR":
-                mInitialTime = new Timepoint(value, mInitialTime.getMinute(), mInitialTime.getSecond());
-                break;
-            case  "MINUTE":
+    public void onTimeSelected(int value, Timepoint.TYPE type) {
+        int changed;
+        switch (type){
+            case MINUTE:
                 mInitialTime = new Timepoint(mInitialTime.getHour(), value, mInitialTime.getSecond());
+                changed = CHANGED_MINUTE;
                 break;
-            case "SECOND":
+            case SECOND:
                 mInitialTime = new Timepoint(mInitialTime.getHour(), mInitialTime.getMinute(), value);
+                changed = CHANGED_SECOND;
                 break;
             default:
                 mInitialTime = new Timepoint(value, mInitialTime.getMinute(), mInitialTime.getSecond());
+                changed = CHANGED_HOUR;
                 break;
         }
 
-
-        updatePickers();
+        updatePickers(changed);
         setCurrentView(MONTH_AND_DAY_VIEW);
         updateDisplay(true);
     }
@@ -1246,7 +1694,7 @@ public class DatePickerDialog extends DialogFragment implements
     public void onMonthSelected(int month) {
         mCalendar.set(Calendar.MONTH, month);
         adjustDayInMonthIfNeeded(mCalendar);
-        updatePickers();
+        updatePickers(CHANGED_MONTH | CHANGED_DAY);
         if(!mOnlyMonthYear) {
             setCurrentView(MONTH_AND_DAY_VIEW);
         }
@@ -1258,7 +1706,7 @@ public class DatePickerDialog extends DialogFragment implements
         mCalendar.set(Calendar.YEAR, year);
         mCalendar.set(Calendar.MONTH, month);
         mCalendar.set(Calendar.DAY_OF_MONTH, day);
-        updatePickers();
+        updatePickers(CHANGED_DATE);
         updateDisplay(true);
         if (mAutoDismiss) {
             notifyOnDateListener();
@@ -1266,8 +1714,28 @@ public class DatePickerDialog extends DialogFragment implements
         }
     }
 
-    private void updatePickers() {
-        for (OnDateChangedListener listener : mListeners) listener.onDateChanged();
+    private void updatePickers(int fields) {
+        final View shownPage = mAnimator != null ? mAnimator.getCurrentView() : null;
+        for (OnDateChangedListener listener : mListeners) {
+            // Pages the animator does not show are refreshed by setCurrentView once they are shown
+            if (listener != shownPage && isPage(listener)) continue;
+            if (listener instanceof OnFieldsChangedListener) {
+                ((OnFieldsChangedListener) listener).onFieldsChanged(fields);
+            } else {
+                listener.onDateChanged();
+            }
+        }
+    }
+
+    private boolean isPage(OnDateChangedListener listener) {
+        return listener instanceof View && mAnimator != null && ((View) listener).getParent() == mAnimator;
+    }
+
+    private void onConstraintsChanged() {
+        // The first and last valid day depend on all constraints, search them again on demand
+        mRangeStartDate = mRangeEndDate = null;
+        if (mDayPickerView != null) mDayPickerView.onChange();
+        updatePickers(CHANGED_CONSTRAINTS);
     }
 
 
@@ -1278,7 +1746,10 @@ public class DatePickerDialog extends DialogFragment implements
 
     @Override
     public Calendar getStartDate() {
-        if (selectableDays != null) return selectableDays[0];
+        if (hasDayConstraints()) {
+            if (mRangeStartDate == null) mRangeStartDate = getRangeBoundary(true);
+            return mRangeStartDate;
+        }
         if (mMinDate != null) return mMinDate;
         Calendar output = Calendar.getInstance();
         output.set(Calendar.YEAR, mMinYear);
@@ -1289,7 +1760,10 @@ public class DatePickerDialog extends DialogFragment implements
 
     @Override
     public Calendar getEndDate() {
-        if (selectableDays != null) return selectableDays[selectableDays.length - 1];
+        if (hasDayConstraints()) {
+            if (mRangeEndDate == null) mRangeEndDate = getRangeBoundary(false);
+            return mRangeEndDate;
+        }
         if (mMaxDate != null) return mMaxDate;
         Calendar output = Calendar.getInstance();
         output.set(Calendar.YEAR, mMaxYear);
@@ -1300,49 +1774,76 @@ public class DatePickerDialog extends DialogFragment implements
 
     @Override
     public int getCurrentYear(){
-        if (selectableDays != null) return selectableDays[0].get(Calendar.YEAR);
+        if (mConstraints.getSelectableIndex() != null) return getStartDate().get(Calendar.YEAR);
         return  mCalendar.get(mCalendar.YEAR);
     }
          
     @Override
     public int getMinYear() {
-        if (selectableDays != null) return selectableDays[0].get(Calendar.YEAR);
+        if (hasDayConstraints()) return getStartDate().get(Calendar.YEAR);
         // Ensure no years can be selected outside of the given minimum date
         return mMinDate != null && mMinDate.get(Calendar.YEAR) > mMinYear ? mMinDate.get(Calendar.YEAR) : mMinYear;
     }
 
     @Override
     public int getMaxYear() {
-        if (selectableDays != null)
-            return selectableDays[selectableDays.length - 1].get(Calendar.YEAR);
+        if (hasDayConstraints()) return getEndDate().get(Calendar.YEAR);
         // Ensure no years can be selected outside of the given maximum date
         return mMaxDate != null && mMaxDate.get(Calendar.YEAR) < mMaxYear ? mMaxDate.get(Calendar.YEAR) : mMaxYear;
     }
 
     @Override
     public int getMinMonth() {
-        if (selectableDays != null) return selectableDays[0].get(Calendar.MONTH);
+        if (hasDayConstraints()) return getStartDate().get(Calendar.MONTH);
         // Ensure no years can be selected outside of the given minimum date
-        return mMinDate != null && mMinDate.get(Calendar.MONTH) > 0 ? mMinDate.get(Calendar.MONTH) : 0;
-        //return  mMinDate!=null?mMinDate.get(Calendar.MONTH):mCalendar.get(Calendar.MONTH) ;
+        return mMinDate != null ? mMinDate.get(Calendar.MONTH) : Calendar.JANUARY;
     }
 
     @Override
     public int getMaxMonth() {
-        if (selectableDays != null)
-            return selectableDays[selectableDays.length - 1].get(Calendar.MONTH);
+        if (hasDayConstraints()) return getEndDate().get(Calendar.MONTH);
         // Ensure no years can be selected outside of the given maximum date
-        String[] months = new DateFormatSymbols().getMonths();
-        return mMaxDate != null && mMaxDate.get(Calendar.MONTH) < months.length-1 ? mMaxDate.get(Calendar.MONTH) : months.length-1;
+        return mMaxDate != null ? mMaxDate.get(Calendar.MONTH) : Calendar.DECEMBER;
     }
+
+    /**
+     * @return true if selectable days or ranges narrow the min and max date, so the first and last
+     * valid day have to be searched for, see {@link DateConstraints#getBoundary(boolean, Calendar)}
+     */
+    private boolean hasDayConstraints() {
+        return mConstraints.getSelectableIndex() != null || mConstraints.hasRanges();
+    }
+
     /**
      * @return true if the specified year/month/day are within the selectable days or the range set by minDate and maxDate.
      * If one or either have not been set, they are considered as Integer.MIN_VALUE and
-     * Integer.MAX_VALUE.
+     * Integer.MAX_VALUE. Days the availability provider marked unavailable are out of range too.
      */
     @Override
     public boolean isOutOfRange(int year, int month, int day) {
-        return isDisabled(year, month, day) || !isSelectable(year, month, day);
+        return mConstraints.isOutOfRange(year, month, day) || isUnavailable(year, month, day);
+    }
+
+    /**
+     * @return true if the provider marked the day unavailable. Months which have not loaded yet
+     * count as available, the OK button waits for the month of the selection instead.
+     */
+    private boolean isUnavailable(int year, int month, int day) {
+        if (mAvailability == null) return false;
+        final Integer available = mAvailability.peek(year, month);
+        return available != null && (available & 1 << (day - 1)) == 0;
+    }
+
+    private boolean isUnavailable(int epochDay, Calendar scratch) {
+        if (mAvailability == null) return false;
+        EpochDayIndex.toCalendar(epochDay, scratch);
+        return isUnavailable(scratch.get(Calendar.YEAR), scratch.get(Calendar.MONTH),
+                scratch.get(Calendar.DAY_OF_MONTH));
+    }
+
+    @Override
+    public boolean isHighlighted(int year, int month, int day) {
+        return mConstraints.isHighlighted(year, month, day);
     }
 
     @SuppressWarnings("unused")
@@ -1354,147 +1855,86 @@ public class DatePickerDialog extends DialogFragment implements
         );
     }
 
-    private boolean isDisabled(int year, int month, int day) {
-        return containsDate(disabledDays, year, month, day) || isBeforeMin(year, month, day) || isAfterMax(year, month, day);
-    }
-
-    private boolean isDisabled(Calendar c) {
-        return isDisabled(c.get(Calendar.YEAR), c.get(Calendar.MONTH), c.get(Calendar.DAY_OF_MONTH));
+    /**
+     * @param start true for the first valid day, false for the last one
+     * @return the first or last valid day within the min and max date
+     */
+    private Calendar getRangeBoundary(boolean start) {
+        final Calendar calendar = Calendar.getInstance();
+        return trimToMidnight(EpochDayIndex.toCalendar(mConstraints.getBoundary(start, calendar), calendar));
     }
 
-    private boolean isSelectable(int year, int month, int day) {
-        return selectableDays == null || containsDate(selectableDays, year, month, day);
+    /**
+     * Rebuilds the epoch day indexes from the Calendar based constraints,
+     * e.g. after they have been restored from a saved instance state
+     */
+    private void compileConstraints() {
+        mConstraints.setYearRange(mMinYear, mMaxYear);
+        mConstraints.setMinDay(mMinDate != null ? EpochDayIndex.toEpochDay(mMinDate) : Integer.MIN_VALUE);
+        mConstraints.setMaxDay(mMaxDate != null ? EpochDayIndex.toEpochDay(mMaxDate) : Integer.MAX_VALUE);
+        mConstraints.setHighlightedIndex(EpochDayIndex.of(highlightedDays));
+        mConstraints.setSelectableIndex(EpochDayIndex.of(selectableDays));
+        mConstraints.setDisabledIndex(EpochDayIndex.of(disabledDays));
+        mRangeStartDate = mRangeEndDate = null;
     }
 
     /**
-     * Checks whether the given data is contained in an array of dates
-     *
-     * @param dates Calendar[] which contents we want to search
-     * @param year  the year as an int
-     * @param month the month as an int
-     * @param day   the day as an int
-     * @return true if the data is present in the array
+     * Moves the calendar to the valid day closest to it, preferring the earlier day on a tie.
+     * The search is logarithmic in the number of constraints, see {@link DateConstraints#nearestValidDay(int, Calendar)}
      */
-    private boolean containsDate(Calendar[] dates, int year, int month, int day) {
-        if (dates == null) return false;
-        for (Calendar c : dates) {
-            if (year < c.get(Calendar.YEAR)) break;
-            if (year > c.get(Calendar.YEAR)) continue;
-            if (month < c.get(Calendar.MONTH)) break;
-            if (month > c.get(Calendar.MONTH)) continue;
-            if (day < c.get(Calendar.DAY_OF_MONTH)) break;
-            if (day > c.get(Calendar.DAY_OF_MONTH)) continue;
-            return true;
-        }
-        return false;
+    private void setToNearestDate(Calendar calendar) {
+        final int day = EpochDayIndex.toEpochDay(calendar);
+        final Calendar scratch = (Calendar) calendar.clone();
+        int nearest = mConstraints.nearestValidDay(day, scratch);
+        if (isUnavailable(nearest, scratch)) nearest = nearestAvailableDay(day, nearest, scratch);
+        if (nearest != day) EpochDayIndex.toCalendar(nearest, calendar);
     }
 
-    private boolean isBeforeMin(int year, int month, int day) {
-        if (mMinDate == null) {
-            return false;
-        }
-
-        if (year < mMinDate.get(Calendar.YEAR)) {
-            return true;
-        } else if (year > mMinDate.get(Calendar.YEAR)) {
-            return false;
-        }
+    /**
+     * Like {@link DateConstraints#nearestValidDay(int, Calendar)}, but also steps over the days
+     * the provider marked unavailable. Only loaded months have unavailable days and the loader
+     * keeps a bounded number of them, so only a bounded number of days is stepped over.
+     * @return the nearest valid and available day, or fallback if there is none
+     */
+    private int nearestAvailableDay(int epochDay, int fallback, Calendar scratch) {
+        final int first = mConstraints.getFirstDay();
+        final int last = mConstraints.getLastDay();
 
-        if (month < mMinDate.get(Calendar.MONTH)) {
-            return true;
-        } else if (month > mMinDate.get(Calendar.MONTH)) {
-            return false;
+        int next = mConstraints.nextValidDay(epochDay, last, scratch);
+        while (next != Integer.MAX_VALUE && isUnavailable(next, scratch)) {
+            next = mConstraints.nextValidDay(next + 1, last, scratch);
         }
-
-        if (day < mMinDate.get(Calendar.DAY_OF_MONTH)) {
-            return true;
-        } else {
-            return false;
+        int previous = mConstraints.previousValidDay(epochDay, first, scratch);
+        while (previous != Integer.MIN_VALUE && isUnavailable(previous, scratch)) {
+            previous = mConstraints.previousValidDay(previous - 1, first, scratch);
         }
-    }
 
-    private boolean isBeforeMin(Calendar calendar) {
-        return isBeforeMin(
-                calendar.get(Calendar.YEAR),
-                calendar.get(Calendar.MONTH),
-                calendar.get(Calendar.DAY_OF_MONTH)
-        );
+        if (next == Integer.MAX_VALUE && previous == Integer.MIN_VALUE) return fallback;
+        if (previous == Integer.MIN_VALUE) return next;
+        if (next == Integer.MAX_VALUE) return previous;
+        return (long) epochDay - previous <= (long) next - epochDay ? previous : next;
     }
 
-    private boolean isAfterMax(int year, int month, int day) {
-        if (mMaxDate == null) {
-            return false;
-        }
-
-        if (year > mMaxDate.get(Calendar.YEAR)) {
-            return true;
-        } else if (year < mMaxDate.get(Calendar.YEAR)) {
-            return false;
-        }
-
-        if (month > mMaxDate.get(Calendar.MONTH)) {
-            return true;
-        } else if (month < mMaxDate.get(Calendar.MONTH)) {
-            return false;
-        }
-
-        if (day > mMaxDate.get(Calendar.DAY_OF_MONTH)) {
-            return true;
-        } else {
-            return false;
-        }
+    /**
+     * @return the days of the index as sorted, packed epoch days for the saved state, or null if index is null
+     */
+    private static byte[] packDays(EpochDayIndex index) {
+        if (index == null) return null;
+        int[] epochDays = new int[index.size()];
+        for (int i = 0; i < epochDays.length; i++) epochDays[i] = index.get(i);
+        return PackedInts.pack(epochDays);
     }
 
-    private boolean isAfterMax(Calendar calendar) {
-        return isAfterMax(
-                calendar.get(Calendar.YEAR),
-                calendar.get(Calendar.MONTH),
-                calendar.get(Calendar.DAY_OF_MONTH)
-        );
+    private Calendar[] unpackDays(byte[] packed) {
+        int[] epochDays = PackedInts.unpack(packed);
+        if (epochDays == null) return null;
+        Calendar[] days = new Calendar[epochDays.length];
+        for (int i = 0; i < days.length; i++) days[i] = toDay(epochDays[i]);
+        return days;
     }
 
-    private void setToNearestDate(Calendar calendar) {
-        if (selectableDays != null) {
-            long distance = Long.MAX_VALUE;
-            Calendar currentBest = calendar;
-            for (Calendar c : selectableDays) {
-                long newDistance = Math.abs(calendar.getTimeInMillis() - c.getTimeInMillis());
-                if (newDistance < distance && !isDisabled(c)) {
-                    distance = newDistance;
-                    currentBest = c;
-                } else break;
-            }
-            calendar.setTimeInMillis(currentBest.getTimeInMillis());
-            return;
-        }
-
-        if (disabledDays != null) {
-            Calendar forwardDate = (Calendar) calendar.clone();
-            Calendar backwardDate = (Calendar) calendar.clone();
-            while (isDisabled(forwardDate) && isDisabled(backwardDate)) {
-                forwardDate.add(Calendar.DAY_OF_MONTH, 1);
-                backwardDate.add(Calendar.DAY_OF_MONTH, -1);
-            }
-            if (!isDisabled(backwardDate)) {
-                calendar.setTimeInMillis(backwardDate.getTimeInMillis());
-                return;
-            }
-            if (!isDisabled(forwardDate)) {
-                calendar.setTimeInMillis(forwardDate.getTimeInMillis());
-                return;
-            }
-        }
-
-
-        if (isBeforeMin(calendar)) {
-            calendar.setTimeInMillis(mMinDate.getTimeInMillis());
-            return;
-        }
-
-        if (isAfterMax(calendar)) {
-            calendar.setTimeInMillis(mMaxDate.getTimeInMillis());
-            return;
-        }
+    private Calendar toDay(int epochDay) {
+        return trimToMidnight(EpochDayIndex.toCalendar(epochDay, Calendar.getInstance()));
     }
 
     /**
@@ -1532,6 +1972,11 @@ public class DatePickerDialog extends DialogFragment implements
         if (mVibrate) mHapticFeedbackController.tryVibrate();
     }
 
+    @Override
+    public PickerMetrics getMetrics() {
+        return mMetrics;
+    }
+
     public void notifyOnDateListener() {
         if (mCallBack != null) {
             mCallBack.onDateSet(DatePickerDialog.this, mCalendar.get(Calendar.YEAR),
@@ -32,10 +32,10 @@ import android.widget.AbsListView;
 import android.widget.AbsListView.OnScrollListener;
 import android.widget.ListView;
 
+import com.kenmeidearu.materialdatetimepicker.DateFormatterPool;
 import com.kenmeidearu.materialdatetimepicker.Utils;
 import com.kenmeidearu.materialdatetimepicker.date.DatePickerDialog.OnDateChangedListener;
 
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Locale;
 
@@ -43,7 +43,7 @@ import java.util.Locale;
  * This displays a list of months in a calendar format with selectable days.
  */
 public abstract class DayPickerView extends ListView implements OnScrollListener,
-    OnDateChangedListener {
+    OnDateChangedListener, MonthListView {
 
     private static final String TAG = "MonthFragment";
 
@@ -56,13 +56,17 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
     protected static final int SCROLL_CHANGE_DELAY = 40;
     // The number of days to display in each week
     public static final int DAYS_PER_WEEK = 7;
+    // How many months ahead of the scroll direction to load the availability for
+    protected static final int PREFETCH_MONTHS = 2;
+    // How many months ahead of the scroll direction to render in the background while flinging
+    protected static final int PRERENDER_MONTHS = 2;
     public static int LIST_TOP_OFFSET = -1; // so that the top line will be
                                             // under the separator
     // You can override these numbers to get a different appearance
     protected int mNumWeeks = 6;
     protected boolean mShowWeekNumber = false;
     protected int mDaysPerWeek = 7;
-    private static SimpleDateFormat YEAR_FORMAT = new SimpleDateFormat("yyyy", Locale.getDefault());
+    private static final String YEAR_FORMAT = "yyyy";
 
     // These affect the scroll speed and feel
     protected float mFriction = 1.0f;
@@ -91,6 +95,8 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
 
     private DatePickerController mController;
     private boolean mPerformingScroll;
+    private MonthAvailabilityLoader mAvailability;
+    private boolean mPreRenderEnabled;
 
     public DayPickerView(Context context, AttributeSet attrs) {
         super(context, attrs);
@@ -120,9 +126,50 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
     }
 
     public void onChange() {
+        if (mAdapter != null) mAdapter.invalidateDayStates();
         refreshAdapter();
     }
 
+    /**
+     * Sets the loader which is asked for the available days of every month as it nears the
+     * viewport, see {@link MonthAdapter#setAvailabilityLoader(MonthAvailabilityLoader)}
+     *
+     * @param availability The loader of the dialog, or null to remove it
+     */
+    public void setAvailabilityLoader(MonthAvailabilityLoader availability) {
+        mAvailability = availability;
+        if (mAdapter != null) mAdapter.setAvailabilityLoader(availability);
+    }
+
+    /**
+     * Enables rendering the months next to the viewport into bitmaps on a worker thread. While
+     * the list is flinging those bitmaps are drawn instead of the live grids, which are drawn
+     * again once scrolling settles.
+     *
+     * @param enabled Whether to pre-render months
+     */
+    public void setPreRenderEnabled(boolean enabled) {
+        mPreRenderEnabled = enabled;
+        if (mAdapter != null) mAdapter.setPreRenderEnabled(enabled && isAttachedToWindowCompat());
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (mAdapter != null && mPreRenderEnabled) mAdapter.setPreRenderEnabled(true);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        // Stops the worker thread of the renderer
+        if (mAdapter != null) mAdapter.setPreRenderEnabled(false);
+        super.onDetachedFromWindow();
+    }
+
+    private boolean isAttachedToWindowCompat() {
+        return getWindowToken() != null;
+    }
+
     /**
      * Creates a new adapter if necessary and sets up its parameters. Override
      * this method to provide a custom adapter.
@@ -130,6 +177,8 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
     protected void refreshAdapter() {
         if (mAdapter == null) {
             mAdapter = createMonthAdapter(getContext(), mController);
+            if (mAvailability != null) mAdapter.setAvailabilityLoader(mAvailability);
+            if (mPreRenderEnabled && isAttachedToWindowCompat()) mAdapter.setPreRenderEnabled(true);
         } else {
             mAdapter.setSelectedDay(mSelectedDay);
         }
@@ -183,9 +232,7 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
         }
 
         mTempDay.set(day);
-        int minMonth = mController.getStartDate().get(Calendar.MONTH);
-        final int position = (day.year - mController.getMinYear())
-                * MonthAdapter.MONTHS_IN_YEAR + day.month - minMonth;
+        final int position = mAdapter.getMonthIndex().getPosition(day.year, day.month);
 
         View child;
         int i = 0;
@@ -261,6 +308,15 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
 
         // Figure out where we are
         long currScroll = view.getFirstVisiblePosition() * child.getHeight() - child.getBottom();
+        if (mAdapter != null && currScroll != mPreviousScrollPosition) {
+            final int lastVisibleItem = firstVisibleItem + visibleItemCount - 1;
+            final boolean forward = currScroll > mPreviousScrollPosition;
+            mAdapter.prefetch(firstVisibleItem, lastVisibleItem, forward, PREFETCH_MONTHS);
+            if (mPreRenderEnabled) {
+                mAdapter.preRender(firstVisibleItem, lastVisibleItem, forward, PRERENDER_MONTHS,
+                        child.getWidth());
+            }
+        }
         mPreviousScrollPosition = currScroll;
         mPreviousScrollState = mCurrentScrollState;
     }
@@ -276,6 +332,18 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
 
     @Override
     public void onScrollStateChanged(AbsListView view, int scrollState) {
+        if (mPreRenderEnabled && mAdapter != null) {
+            if (scrollState == OnScrollListener.SCROLL_STATE_FLING) {
+                mAdapter.setFlinging(true);
+            } else if (scrollState == OnScrollListener.SCROLL_STATE_IDLE) {
+                // Scrolling settled, switch every visible month back to live drawing
+                for (int i = 0; i < getChildCount(); i++) {
+                    View child = getChildAt(i);
+                    if (child instanceof MonthView) ((MonthView) child).setPrerendered(null);
+                }
+                mAdapter.setFlinging(false);
+            }
+        }
         // use a post to prevent re-entering onScrollStateChanged before it
         // exits
         mScrollStateChangedRunnable.doScrollStateChange(view, scrollState);
@@ -366,6 +434,12 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
         return firstPosition + mostVisibleIndex;
     }
 
+    @Override
+    public void onFieldsChanged(int fields) {
+        if ((fields & DatePickerDialog.CHANGED_DATE) == 0) return;
+        onDateChanged();
+    }
+
     @Override
     public void onDateChanged() {
         goTo(mController.getSelectedDay(), false, true, true);
@@ -445,7 +519,7 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
         String sbuf = "";
         sbuf += cal.getDisplayName(Calendar.MONTH, Calendar.LONG, Locale.getDefault());
         sbuf += " ";
-        sbuf += YEAR_FORMAT.format(cal.getTime());
+        sbuf += DateFormatterPool.format(YEAR_FORMAT, cal.getTime());
         return sbuf;
     }
 
@@ -480,9 +554,9 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
 
         // Figure out what month is showing.
         int firstVisiblePosition = getFirstVisiblePosition();
-        int minMonth = mController.getStartDate().get(Calendar.MONTH);
-        int month = (firstVisiblePosition + minMonth) % MonthAdapter.MONTHS_IN_YEAR;
-        int year = (firstVisiblePosition + minMonth) / MonthAdapter.MONTHS_IN_YEAR + mController.getMinYear();
+        MonthIndex monthIndex = mAdapter.getMonthIndex();
+        int month = monthIndex.getMonth(firstVisiblePosition);
+        int year = monthIndex.getYear(firstVisiblePosition);
         MonthAdapter.CalendarDay day = new MonthAdapter.CalendarDay(year, month, 1);
 
         // Scroll either forward or backward one month.
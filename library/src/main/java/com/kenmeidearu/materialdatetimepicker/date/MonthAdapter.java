@@ -23,15 +23,16 @@ import android.view.ViewGroup;
 import android.widget.AbsListView.LayoutParams;
 import android.widget.BaseAdapter;
 
+import com.kenmeidearu.materialdatetimepicker.PickerMetrics;
 import com.kenmeidearu.materialdatetimepicker.date.MonthView.OnDayClickListener;
 
 import java.util.Calendar;
-import java.util.HashMap;
 
 /**
  * An adapter for a list of {@link MonthView} items.
  */
-public abstract class MonthAdapter extends BaseAdapter implements OnDayClickListener {
+public abstract class MonthAdapter extends BaseAdapter implements OnDayClickListener,
+        MonthAvailabilityLoader.OnMonthLoadedListener {
 
     private static final String TAG = "SimpleMonthAdapter";
 
@@ -39,6 +40,12 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
     protected final DatePickerController mController;
 
     private CalendarDay mSelectedDay;
+    protected final MonthDayStateCache mDayStates = new MonthDayStateCache();
+    protected final MonthIndex mMonthIndex = new MonthIndex();
+    private MonthAvailabilityLoader mAvailability;
+    private MonthAvailabilityLoader.OnMonthLoadedListener mOnMonthLoadedListener;
+    private MonthPreRenderer mPreRenderer;
+    private boolean mFlinging;
 
     protected static int WEEK_7_OVERHANG_HEIGHT = 7;
     protected static final int MONTHS_IN_YEAR = 12;
@@ -137,6 +144,7 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
             DatePickerController controller) {
         mContext = context;
         mController = controller;
+        mMonthIndex.set(mController.getStartDate(), mController.getEndDate());
         init();
         setSelectedDay(mController.getSelectedDay());
     }
@@ -148,9 +156,129 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
      */
     public void setSelectedDay(CalendarDay day) {
         mSelectedDay = day;
+        if (mPreRenderer != null) mPreRenderer.invalidate();
         notifyDataSetChanged();
     }
 
+    /**
+     * Drops the cached day states of all months, so they are rebuilt against the current
+     * constraints of the controller when they are bound again. Also picks up a changed range.
+     */
+    public void invalidateDayStates() {
+        mMonthIndex.set(mController.getStartDate(), mController.getEndDate());
+        mDayStates.invalidate();
+        if (mPreRenderer != null) mPreRenderer.invalidate();
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Enables rendering the months next to the viewport into bitmaps on a worker thread, which
+     * are shown instead of the live grid while the list is flinging.
+     *
+     * @param enabled Whether to pre-render months
+     */
+    public void setPreRenderEnabled(boolean enabled) {
+        if (enabled == (mPreRenderer != null)) return;
+        if (enabled) {
+            mPreRenderer = new MonthPreRenderer(createMonthView(mContext));
+        } else {
+            mPreRenderer.release();
+            mPreRenderer = null;
+            mFlinging = false;
+        }
+    }
+
+    /**
+     * While flinging, bound views show pre-rendered bitmaps where available
+     *
+     * @param flinging Whether the list is flinging
+     */
+    public void setFlinging(boolean flinging) {
+        mFlinging = flinging && mPreRenderer != null;
+        // Once idle no view shows a bitmap anymore, so evicted ones can be reused
+        if (!flinging && mPreRenderer != null) mPreRenderer.onIdle();
+    }
+
+    /**
+     * Starts rendering the months next to the visible ones in the direction the list is scrolling.
+     *
+     * @param firstPosition The first visible position
+     * @param lastPosition The last visible position
+     * @param forward Whether the list is scrolling towards later months
+     * @param count The number of months to render
+     * @param width The width of the month views
+     */
+    public void preRender(int firstPosition, int lastPosition, boolean forward, int count, int width) {
+        if (mPreRenderer == null) return;
+        final int total = mMonthIndex.getCount();
+        for (int i = 1; i <= count; i++) {
+            int position = forward ? lastPosition + i : firstPosition - i;
+            if (position < 0 || position >= total) break;
+            final int year = mMonthIndex.getYear(position);
+            final int month = mMonthIndex.getMonth(position);
+            mPreRenderer.request(mDayStates.get(mController, mAvailability, year, month),
+                    isSelectedDayInMonth(year, month) ? mSelectedDay.day : -1,
+                    mController.getFirstDayOfWeek(), width);
+        }
+    }
+
+    /**
+     * @return the mapping between list positions and months
+     */
+    public MonthIndex getMonthIndex() {
+        return mMonthIndex;
+    }
+
+    /**
+     * Sets the loader which is asked for the available days of every month before it is shown.
+     * Months are drawn in a loading state until their availability is known.
+     *
+     * @param availability The loader of the dialog, or null to remove it
+     */
+    public void setAvailabilityLoader(MonthAvailabilityLoader availability) {
+        if (mAvailability != null) mAvailability.removeOnMonthLoadedListener(this);
+        mAvailability = availability;
+        if (availability != null) availability.addOnMonthLoadedListener(this);
+        invalidateDayStates();
+    }
+
+    /**
+     * Sets a listener which is told about every month whose availability arrived, instead of
+     * notifying the observers that all months changed. Lets a RecyclerView rebind only that month.
+     *
+     * @param listener The listener, or null to notify the data set observers
+     */
+    void setOnMonthLoadedListener(MonthAvailabilityLoader.OnMonthLoadedListener listener) {
+        mOnMonthLoadedListener = listener;
+    }
+
+    @Override
+    public void onMonthLoaded(int year, int month) {
+        mDayStates.invalidate(year, month);
+        if (mPreRenderer != null) mPreRenderer.invalidate();
+        if (mOnMonthLoadedListener != null) mOnMonthLoadedListener.onMonthLoaded(year, month);
+        else notifyDataSetChanged();
+    }
+
+    /**
+     * Starts loading the availability of the months next to the visible ones, in the direction
+     * the list is scrolling.
+     *
+     * @param firstPosition The first visible position
+     * @param lastPosition The last visible position
+     * @param forward Whether the list is scrolling towards later months
+     * @param count The number of months to prefetch
+     */
+    public void prefetch(int firstPosition, int lastPosition, boolean forward, int count) {
+        if (mAvailability == null) return;
+        final int total = mMonthIndex.getCount();
+        for (int i = 1; i <= count; i++) {
+            int position = forward ? lastPosition + i : firstPosition - i;
+            if (position < 0 || position >= total) break;
+            mAvailability.prefetch(mMonthIndex.getYear(position), mMonthIndex.getMonth(position));
+        }
+    }
+
     @SuppressWarnings("unused")
     public CalendarDay getSelectedDay() {
         return mSelectedDay;
@@ -165,12 +293,7 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
 
     @Override
     public int getCount() {
-        Calendar endDate = mController.getEndDate();
-        Calendar startDate = mController.getStartDate();
-        int endMonth = endDate.get(Calendar.YEAR) * MONTHS_IN_YEAR + endDate.get(Calendar.MONTH);
-        int startMonth = startDate.get(Calendar.YEAR) * MONTHS_IN_YEAR + startDate.get(Calendar.MONTH);
-        return endMonth - startMonth + 1;
-        //return ((mController.getMaxYear() - mController.getMinYear()) + 1) * MONTHS_IN_YEAR;
+        return mMonthIndex.getCount();
     }
 
     @Override
@@ -189,15 +312,13 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
     }
 
     @SuppressLint("NewApi")
-    @SuppressWarnings("unchecked")
     @Override
     public View getView(int position, View convertView, ViewGroup parent) {
+        final PickerMetrics metrics = mController.getMetrics();
+        final long start = metrics != null ? metrics.beginBind() : 0;
         MonthView v;
-        HashMap<String, Integer> drawingParams = null;
         if (convertView != null) {
             v = (MonthView) convertView;
-            // We store the drawing parameters in the view so it can be recycled
-            drawingParams = (HashMap<String, Integer>) v.getTag();
         } else {
             v = createMonthView(mContext);
             // Set up the new view
@@ -207,13 +328,9 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
             v.setClickable(true);
             v.setOnDayClickListener(this);
         }
-        if (drawingParams == null) {
-            drawingParams = new HashMap<>();
-        }
-        drawingParams.clear();
 
-        final int month = (position + mController.getStartDate().get(Calendar.MONTH)) % MONTHS_IN_YEAR;
-        final int year = (position + mController.getStartDate().get(Calendar.MONTH)) / MONTHS_IN_YEAR + mController.getMinYear();
+        final int month = mMonthIndex.getMonth(position);
+        final int year = mMonthIndex.getYear(position);
 
         int selectedDay = -1;
         if (isSelectedDayInMonth(year, month)) {
@@ -224,12 +341,12 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
         // height/number of weeks before being displayed.
         v.reuse();
 
-        drawingParams.put(MonthView.VIEW_PARAMS_SELECTED_DAY, selectedDay);
-        drawingParams.put(MonthView.VIEW_PARAMS_YEAR, year);
-        drawingParams.put(MonthView.VIEW_PARAMS_MONTH, month);
-        drawingParams.put(MonthView.VIEW_PARAMS_WEEK_START, mController.getFirstDayOfWeek());
-        v.setMonthParams(drawingParams);
+        v.setDayStates(mDayStates.get(mController, mAvailability, year, month));
+        // The view owns its parameters, so binding reuses them instead of allocating
+        v.bind(v.getMonthParams().set(year, month, selectedDay, mController.getFirstDayOfWeek()));
+        v.setPrerendered(mFlinging ? mPreRenderer.get(year, month, v.getWidth()) : null);
         v.invalidate();
+        if (metrics != null) metrics.endBind(start);
         return v;
     }
 
@@ -0,0 +1,155 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+import android.util.SparseBooleanArray;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Loads the availability of months from a {@link DateAvailabilityProvider} on a background
+ * {@link Executor} and keeps the results in an LRU cache, keyed by (year, month). Owned by the
+ * {@link DatePickerDialog}, which checks the selection against it, and shared with its month list.
+ * Each result is a bitmask where bit (day - 1) is set for every available day.
+ * If the provider throws or the executor rejects the request, the month fails closed: every day
+ * is treated as unavailable, so a failed query never makes days selectable and the picker is not
+ * stuck in the loading state. The month is asked for again once it drops out of the cache.
+ * All methods must be called on the main thread.
+ */
+public class MonthAvailabilityLoader {
+    private static final String TAG = "MonthAvailabilityLoader";
+    // Enough for the visible months plus a prefetch window in both directions
+    private static final int CACHE_SIZE = 24;
+    // The result of a month which could not be loaded
+    private static final int UNAVAILABLE = 0;
+
+    /**
+     * Notified on the main thread when the availability of a month has been loaded
+     */
+    public interface OnMonthLoadedListener {
+        void onMonthLoaded(int year, int month);
+    }
+
+    private final DateAvailabilityProvider mProvider;
+    private final Executor mExecutor;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final LruCache<Integer, Integer> mMonths = new LruCache<>(CACHE_SIZE);
+    private final SparseBooleanArray mPending = new SparseBooleanArray();
+    private final ArrayList<OnMonthLoadedListener> mListeners = new ArrayList<>();
+    private boolean mReleased;
+
+    public MonthAvailabilityLoader(DateAvailabilityProvider provider, Executor executor) {
+        mProvider = provider;
+        mExecutor = executor;
+    }
+
+    public void addOnMonthLoadedListener(OnMonthLoadedListener listener) {
+        mListeners.add(listener);
+    }
+
+    public void removeOnMonthLoadedListener(OnMonthLoadedListener listener) {
+        mListeners.remove(listener);
+    }
+
+    /**
+     * Returns the availability of a month, starting to load it if it is not cached yet
+     * @param year The year
+     * @param month The month (0-11)
+     * @return the bitmask of available days, or null while the month is loading
+     */
+    public Integer get(int year, int month) {
+        final int key = year * MonthAdapter.MONTHS_IN_YEAR + month;
+        Integer available = mMonths.get(key);
+        if (available == null) load(key);
+        return available;
+    }
+
+    /**
+     * Returns the availability of a month without starting to load it
+     * @param year The year
+     * @param month The month (0-11)
+     * @return the bitmask of available days, or null if the month is not cached
+     */
+    public Integer peek(int year, int month) {
+        return mMonths.get(year * MonthAdapter.MONTHS_IN_YEAR + month);
+    }
+
+    /**
+     * Starts loading a month ahead of time, unless it is already cached or loading
+     * @param year The year
+     * @param month The month (0-11)
+     */
+    public void prefetch(int year, int month) {
+        final int key = year * MonthAdapter.MONTHS_IN_YEAR + month;
+        if (mMonths.get(key) == null) load(key);
+    }
+
+    /**
+     * Drops pending results and stops notifying the listeners. Requests which already
+     * reached the executor still run, but their results are discarded.
+     */
+    public void release() {
+        mReleased = true;
+        mListeners.clear();
+        mMonths.evictAll();
+        mPending.clear();
+    }
+
+    private void load(final int key) {
+        if (mReleased || mPending.get(key)) return;
+        mPending.put(key, true);
+        final int year = key / MonthAdapter.MONTHS_IN_YEAR;
+        final int month = key % MonthAdapter.MONTHS_IN_YEAR;
+        try {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    int available;
+                    try {
+                        available = toMask(mProvider.getAvailableDays(year, month));
+                    } catch (RuntimeException e) {
+                        Log.w(TAG, "Unable to load the availability of " + year + "-" + (month + 1), e);
+                        available = UNAVAILABLE;
+                    }
+                    deliver(key, available);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Unable to load the availability of " + year + "-" + (month + 1), e);
+            deliver(key, UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Stores the result of a month on the main thread and notifies the listeners
+     */
+    private void deliver(final int key, final int available) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                mPending.delete(key);
+                if (mReleased) return;
+                mMonths.put(key, available);
+                final int year = key / MonthAdapter.MONTHS_IN_YEAR;
+                final int month = key % MonthAdapter.MONTHS_IN_YEAR;
+                // Backwards, so listeners may remove themselves
+                for (int i = mListeners.size() - 1; i >= 0; i--) {
+                    mListeners.get(i).onMonthLoaded(year, month);
+                }
+            }
+        });
+    }
+
+    private static int toMask(int[] days) {
+        if (days == null) return ~0;
+        int mask = 0;
+        for (int day : days) {
+            if (day >= 1 && day <= 31) mask |= 1 << (day - 1);
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,140 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+import android.util.SparseArray;
+
+import java.util.Calendar;
+
+/**
+ * Caches the state of every day in a month as bitmasks, keyed by (year, month).
+ * Bit (day - 1) of each mask describes the given day of the month, so drawing a cell
+ * is a bit test instead of a round trip through the {@link DatePickerController}.
+ * Entries are built the first time a month is bound and kept until {@link #invalidate()}
+ * is called, which should happen whenever the constraints of the picker change.
+ */
+public class MonthDayStateCache {
+    private final SparseArray<MonthDayState> mStates = new SparseArray<>();
+    private final Calendar mToday = Calendar.getInstance();
+
+    /**
+     * The state of all days in a single month
+     */
+    public static class MonthDayState {
+        public final int year;
+        public final int month;
+        public final int disabled;
+        public final int selectable;
+        public final int highlighted;
+        public final int today;
+        // True while the availability of the month is still being loaded, all days are disabled meanwhile
+        public final boolean loading;
+
+        MonthDayState(int year, int month, int disabled, int selectable, int highlighted, int today,
+                      boolean loading) {
+            this.year = year;
+            this.month = month;
+            this.disabled = disabled;
+            this.selectable = selectable;
+            this.highlighted = highlighted;
+            this.today = today;
+            this.loading = loading;
+        }
+
+        public boolean isDisabled(int day) {
+            return (disabled & bit(day)) != 0;
+        }
+
+        public boolean isSelectable(int day) {
+            return (selectable & bit(day)) != 0;
+        }
+
+        public boolean isHighlighted(int day) {
+            return (highlighted & bit(day)) != 0;
+        }
+
+        public boolean isToday(int day) {
+            return (today & bit(day)) != 0;
+        }
+
+        public boolean matches(int year, int month) {
+            return this.year == year && this.month == month;
+        }
+    }
+
+    /**
+     * Returns the cached state of the given month, building it if necessary
+     * @param controller The controller used to evaluate the constraints
+     * @param year The year
+     * @param month The month (0-11)
+     * @return the state of every day in the month
+     */
+    public MonthDayState get(DatePickerController controller, int year, int month) {
+        return get(controller, null, year, month);
+    }
+
+    /**
+     * Returns the cached state of the given month, building it if necessary
+     * @param controller The controller used to evaluate the constraints
+     * @param availability The loader providing the available days, or null if there is none
+     * @param year The year
+     * @param month The month (0-11)
+     * @return the state of every day in the month, which is loading if the availability
+     * of the month is not known yet
+     */
+    public MonthDayState get(DatePickerController controller, MonthAvailabilityLoader availability,
+                             int year, int month) {
+        final int key = year * MonthAdapter.MONTHS_IN_YEAR + month;
+        MonthDayState state = mStates.get(key);
+        if (state == null || (state.loading && availability == null)) {
+            state = build(controller, availability, year, month);
+            mStates.put(key, state);
+        } else if (state.loading) {
+            // Still waiting for the loader, keep asking so evicted months are requested again
+            availability.get(year, month);
+        }
+        return state;
+    }
+
+    /**
+     * Drops a single cached month, e.g. once its availability has been loaded
+     * @param year The year
+     * @param month The month (0-11)
+     */
+    public void invalidate(int year, int month) {
+        mStates.remove(year * MonthAdapter.MONTHS_IN_YEAR + month);
+    }
+
+    /**
+     * Drops all cached months. Call this whenever the constraints of the picker change.
+     */
+    public void invalidate() {
+        mStates.clear();
+    }
+
+    private MonthDayState build(DatePickerController controller, MonthAvailabilityLoader availability,
+                                int year, int month) {
+        final int daysInMonth = EpochDayIndex.daysInMonth(year, month);
+        final int allDays = (1 << daysInMonth) - 1;
+        final Integer available = availability != null ? availability.get(year, month) : null;
+        final boolean loading = availability != null && available == null;
+
+        int disabled = 0;
+        int highlighted = 0;
+        for (int day = 1; day <= daysInMonth; day++) {
+            if (controller.isOutOfRange(year, month, day)) disabled |= bit(day);
+            if (controller.isHighlighted(year, month, day)) highlighted |= bit(day);
+        }
+        if (loading) disabled = allDays;
+        else if (available != null) disabled |= allDays & ~available;
+
+        int today = 0;
+        mToday.setTimeInMillis(System.currentTimeMillis());
+        if (mToday.get(Calendar.YEAR) == year && mToday.get(Calendar.MONTH) == month) {
+            today = bit(mToday.get(Calendar.DAY_OF_MONTH));
+        }
+        return new MonthDayState(year, month, disabled, allDays & ~disabled, highlighted, today, loading);
+    }
+
+    private static int bit(int day) {
+        return 1 << (day - 1);
+    }
+}
@@ -0,0 +1,170 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+import android.content.Context;
+import android.os.Build;
+import android.text.format.DateFormat;
+
+import com.kenmeidearu.materialdatetimepicker.R;
+
+import java.text.DateFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Locale;
+
+/**
+ * A process-wide cache of the labels drawn by every {@link MonthView}: the month and year
+ * titles, kept in a small ring keyed by year * 12 + month, the 7 short weekday labels and the
+ * month names of the {@link MonthPickerView}.
+ * Everything is formatted for the current default locale and thrown away as soon as the
+ * default locale changes. {@link MonthView} resolves its labels when it is bound, so drawing
+ * a frame does not touch this cache at all.
+ */
+public final class MonthLabelCache {
+    // A few screens worth of months in either scroll direction
+    private static final int MAX_TITLES = 36;
+
+    private static Locale sLocale;
+    // Keys and titles of a ring of recently formatted months, the oldest one is replaced first
+    private static final int[] sTitleKeys = new int[MAX_TITLES];
+    private static final String[] sTitles = new String[MAX_TITLES];
+    private static int sTitleCount;
+    private static int sNextTitle;
+    private static SimpleDateFormat sTitleFormat;
+    // Indexed by Calendar.SUNDAY through Calendar.SATURDAY, index 0 is unused
+    private static String[] sWeekDayLabels;
+    // Indexed by Calendar.JANUARY through Calendar.DECEMBER
+    private static String[] sMonthNames;
+    private static final Calendar sCalendar = EpochDayIndex.newCalendar();
+
+    private MonthLabelCache() {
+    }
+
+    /**
+     * @param context A context to resolve the title pattern on API < 18
+     * @param year The year
+     * @param month The month (0-11)
+     * @return the localized title of the month, e.g. "March 2016"
+     */
+    public static synchronized String getMonthAndYear(Context context, int year, int month) {
+        refreshLocale();
+        final int key = year * MonthAdapter.MONTHS_IN_YEAR + month;
+        for (int i = 0; i < sTitleCount; i++) {
+            if (sTitleKeys[i] == key) return sTitles[i];
+        }
+        if (sTitleFormat == null) sTitleFormat = createTitleFormat(context, sLocale);
+        sCalendar.clear();
+        sCalendar.set(year, month, 1);
+        final String title = sTitleFormat.format(sCalendar.getTime());
+        sTitleKeys[sNextTitle] = key;
+        sTitles[sNextTitle] = title;
+        sNextTitle = (sNextTitle + 1) % MAX_TITLES;
+        sTitleCount = Math.min(sTitleCount + 1, MAX_TITLES);
+        return title;
+    }
+
+    /**
+     * @param dayOfWeek {@link Calendar#SUNDAY} through {@link Calendar#SATURDAY}
+     * @return the localized single character label of the day of the week
+     */
+    public static synchronized String getWeekDayLabel(int dayOfWeek) {
+        refreshLocale();
+        if (sWeekDayLabels == null) {
+            String[] labels = new String[Calendar.SATURDAY + 1];
+            Calendar day = Calendar.getInstance();
+            for (int i = Calendar.SUNDAY; i <= Calendar.SATURDAY; i++) {
+                day.set(Calendar.DAY_OF_WEEK, i);
+                labels[i] = formatWeekDayLabel(day, sLocale);
+            }
+            sWeekDayLabels = labels;
+        }
+        return sWeekDayLabels[dayOfWeek];
+    }
+
+    /**
+     * @param month The month (0-11)
+     * @return the localized full name of the month, e.g. "March"
+     */
+    public static synchronized String getMonthName(int month) {
+        refreshLocale();
+        if (sMonthNames == null) sMonthNames = DateFormatSymbols.getInstance(sLocale).getMonths();
+        return sMonthNames[month];
+    }
+
+    /**
+     * Drops all cached labels, e.g. after the configuration of the app changed
+     */
+    public static synchronized void invalidate() {
+        sLocale = null;
+    }
+
+    private static void refreshLocale() {
+        final Locale locale = Locale.getDefault();
+        if (locale == sLocale || locale.equals(sLocale)) return;
+        sLocale = locale;
+        sTitleCount = 0;
+        sNextTitle = 0;
+        Arrays.fill(sTitles, null);
+        sTitleFormat = null;
+        sWeekDayLabels = null;
+        sMonthNames = null;
+    }
+
+    private static SimpleDateFormat createTitleFormat(Context context, Locale locale) {
+        String pattern = "MMMM yyyy";
+
+        if(Build.VERSION.SDK_INT < 18) pattern = context.getResources().getString(R.string.mdtp_date_v1_monthyear);
+        else pattern = DateFormat.getBestDateTimePattern(locale, pattern);
+
+        SimpleDateFormat formatter = new SimpleDateFormat(pattern, locale);
+        formatter.applyLocalizedPattern(pattern);
+        // Titles have to match the proleptic Gregorian grid of the months, also before 1582
+        formatter.setCalendar(EpochDayIndex.newCalendar());
+        return formatter;
+    }
+
+    /**
+     * Return a 1 or 2 letter String for use as a weekday label
+     * @param day The day for which to generate a label
+     * @param locale The locale to format the label in
+     * @return The weekday label
+     */
+    private static String formatWeekDayLabel(Calendar day, Locale locale) {
+        // Localised short version of the string is not available on API < 18
+        if(Build.VERSION.SDK_INT < 18) {
+            String dayName = new SimpleDateFormat("E", locale).format(day.getTime());
+            String dayLabel = dayName.toUpperCase(locale).substring(0, 1);
+
+            // Chinese labels should be fetched right to left
+            if (locale.equals(Locale.CHINA) || locale.equals(Locale.CHINESE) || locale.equals(Locale.SIMPLIFIED_CHINESE) || locale.equals(Locale.TRADITIONAL_CHINESE)) {
+                int len = dayName.length();
+                dayLabel = dayName.substring(len -1, len);
+            }
+
+            // Most hebrew labels should select the second to last character
+            if (locale.getLanguage().equals("he") || locale.getLanguage().equals("iw")) {
+                if(day.get(Calendar.DAY_OF_WEEK) != Calendar.SATURDAY) {
+                    int len = dayName.length();
+                    dayLabel = dayName.substring(len - 2, len - 1);
+                }
+                else {
+                    // I know this is duplication, but it makes the code easier to grok by
+                    // having all hebrew code in the same block
+                    dayLabel = dayName.toUpperCase(locale).substring(0, 1);
+                }
+            }
+
+            // Catalan labels should be two digits in lowercase
+            if (locale.getLanguage().equals("ca"))
+                dayLabel = dayName.toLowerCase().substring(0,2);
+
+            // Correct single character label in Spanish is X
+            if (locale.getLanguage().equals("es") && day.get(Calendar.DAY_OF_WEEK) == Calendar.WEDNESDAY)
+                dayLabel = "X";
+
+            return dayLabel;
+        }
+        // Getting the short label is a one liner on API >= 18
+        return new SimpleDateFormat("EEEEE", locale).format(day.getTime());
+    }
+}
@@ -0,0 +1,35 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+/**
+ * The scrolling list of months shown by {@link DatePickerDialog}. Implemented by the
+ * ListView based {@link DayPickerView} and the RecyclerView based {@link RecyclerDayPickerView}.
+ * Implementations must be Views.
+ */
+public interface MonthListView extends DatePickerDialog.OnFieldsChangedListener {
+    /**
+     * Called whenever the constraints of the picker change
+     */
+    void onChange();
+
+    /**
+     * Moves to the month containing the given day, see
+     * {@link DayPickerView#goTo(MonthAdapter.CalendarDay, boolean, boolean, boolean)}
+     *
+     * @return Whether or not the view animated to the new location
+     */
+    boolean goTo(MonthAdapter.CalendarDay day, boolean animate, boolean setSelected, boolean forceScroll);
+
+    /**
+     * @return the position of the month that is most prominently displayed
+     */
+    int getMostVisiblePosition();
+
+    /**
+     * Scrolls to the given position once the view has been laid out
+     */
+    void postSetSelection(int position);
+
+    void setAvailabilityLoader(MonthAvailabilityLoader availability);
+
+    void setPreRenderEnabled(boolean enabled);
+}
@@ -0,0 +1,47 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+/**
+ * The parameters for displaying a {@link MonthView}, passed to {@link MonthView#bind(MonthParams)}.
+ * Every view keeps one instance that is reused for every bind, so binding never boxes or allocates.
+ */
+public class MonthParams {
+    /**
+     * Marks an optional parameter that should keep the current value of the view
+     */
+    public static final int UNSET = Integer.MIN_VALUE;
+
+    /**
+     * The year to display
+     */
+    public int year;
+    /**
+     * The month to display (0-11)
+     */
+    public int month;
+    /**
+     * The selected day of the month, or -1 if no day in this month is selected
+     */
+    public int selectedDay = -1;
+    /**
+     * Which day the week should start on, {@link java.util.Calendar#SUNDAY} through
+     * {@link java.util.Calendar#SATURDAY}, or {@link #UNSET} to use the default of the locale
+     */
+    public int weekStart = UNSET;
+    /**
+     * The height of a row in pixels, or {@link #UNSET} to keep the current height
+     */
+    public int height = UNSET;
+
+    /**
+     * Sets the parameters which are needed for every bind and clears the optional ones
+     * @return this
+     */
+    public MonthParams set(int year, int month, int selectedDay, int weekStart) {
+        this.year = year;
+        this.month = month;
+        this.selectedDay = selectedDay;
+        this.weekStart = weekStart;
+        this.height = UNSET;
+        return this;
+    }
+}
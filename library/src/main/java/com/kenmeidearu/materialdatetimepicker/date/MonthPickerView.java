@@ -19,27 +19,25 @@ package com.kenmeidearu.materialdatetimepicker.date;
 import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.drawable.StateListDrawable;
+import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.accessibility.AccessibilityEvent;
 import android.widget.AdapterView;
 import android.widget.AdapterView.OnItemClickListener;
-import android.widget.ArrayAdapter;
+import android.widget.BaseAdapter;
 import android.widget.ListView;
 import android.widget.TextView;
 
 import com.kenmeidearu.materialdatetimepicker.R;
-import com.kenmeidearu.materialdatetimepicker.date.DatePickerDialog.OnDateChangedListener;
+import com.kenmeidearu.materialdatetimepicker.date.DatePickerDialog.OnFieldsChangedListener;
 
-import java.text.DateFormatSymbols;
-import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.List;
 
 /**
  * Displays a selectable list of years.
  */
-public class MonthPickerView extends ListView implements OnItemClickListener, OnDateChangedListener {
+public class MonthPickerView extends ListView implements OnItemClickListener, OnFieldsChangedListener {
     private static final String TAG = "MonthPickerView";
 
     private final DatePickerController mController;
@@ -77,8 +75,6 @@ public class MonthPickerView extends ListView implements OnItemClickListener, On
     }
 
     public void init() {
-        String[] months = new DateFormatSymbols().getMonths();
-        ArrayList<String> monthsList = new ArrayList<>();
         int awalBulan,akhirBulan;
         if(mController.getMinYear()>=mController.getCurrentYear()){
             awalBulan=mController.getMinMonth();
@@ -90,54 +86,82 @@ public class MonthPickerView extends ListView implements OnItemClickListener, On
         }else{
             akhirBulan=11;
         }
-        
-        for (int month = awalBulan; month <= akhirBulan; month++) {
-            monthsList .add(months[month]);
+
+        if (mAdapter == null) {
+            mAdapter = new MonthAdapter(ctx);
+            mAdapter.setRange(awalBulan, akhirBulan);
+            setAdapter(mAdapter);
+        } else {
+            mAdapter.setRange(awalBulan, akhirBulan);
         }
-        mAdapter = new MonthAdapter(ctx, R.layout.mdtp_year_label_text_view, monthsList);
-        setAdapter(mAdapter);
     }
 
     @Override
     public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
         mController.tryVibrate();
-        TextView clickedView=(TextView)view;
-        if(clickedView!=null){
-            mController.onMonthSelected(getMonthFromTextView(clickedView));
+        if (view != null) {
+            mController.onMonthSelected(mAdapter.getMonth(position));
             mAdapter.notifyDataSetChanged();
         }
-
     }
 
-    private static int getMonthFromTextView(TextView view) {
-        String[] months = new DateFormatSymbols().getMonths();
-        int index = -1;
-        for (int i=0;i<months.length;i++) {
-            if (months[i].equals(view.getText().toString())) {
-                index = i;
-                break;
-            }
+    /**
+     * Derives the month of a row from its position, the list starts at the first selectable month.
+     */
+    private class MonthAdapter extends BaseAdapter {
+        private final LayoutInflater mInflater;
+        private int mFirstMonth;
+        private int mCount;
+
+        public MonthAdapter(Context context) {
+            mInflater = LayoutInflater.from(context);
         }
-       // Log.e("isi index",index+","+view.getText().toString());
-        return index;// Integer.valueOf(view.getText().toString());
 
-    }
+        void setRange(int firstMonth, int lastMonth) {
+            final int count = Math.max(0, lastMonth - firstMonth + 1);
+            if (firstMonth == mFirstMonth && count == mCount) return;
+            mFirstMonth = firstMonth;
+            mCount = count;
+            notifyDataSetChanged();
+        }
+
+        int getMonth(int position) {
+            return mFirstMonth + position;
+        }
+
+        int getPosition(int month) {
+            return Math.max(0, Math.min(mCount - 1, month - mFirstMonth));
+        }
+
+        @Override
+        public int getCount() {
+            return mCount;
+        }
 
-    private class MonthAdapter extends ArrayAdapter<String> {
+        @Override
+        public Object getItem(int position) {
+            return MonthLabelCache.getMonthName(getMonth(position));
+        }
 
-        public MonthAdapter(Context context, int resource, List<String> objects) {
-            super(context, resource, objects);
+        @Override
+        public long getItemId(int position) {
+            return getMonth(position);
+        }
+
+        @Override
+        public boolean hasStableIds() {
+            return true;
         }
 
         @Override
         public View getView(int position, View convertView, ViewGroup parent) {
-            TextView v=(TextView)super.getView(position, convertView, parent);
-            int month = getMonthFromTextView(v);
+            TextView v = (TextView) (convertView != null
+                    ? convertView
+                    : mInflater.inflate(R.layout.mdtp_year_label_text_view, parent, false));
+            final int month = getMonth(position);
+            v.setText(MonthLabelCache.getMonthName(month));
             boolean selected = mController.getSelectedDay().month == month;
-           // v.drawIndicator(selected);
-           // Log.e("selected",String.valueOf(selected)+":"+month+","+mController.getSelectedDay().month+"-"+mController.getAccentColor());
             if (selected) {
-                //int warna=mController.getAccentColor();
                 v.setBackgroundResource(R.color.mdtp_accent_color);
                 mSelectedViewT = v;
             }else{
@@ -170,10 +194,19 @@ public class MonthPickerView extends ListView implements OnItemClickListener, On
         return firstChild.getTop();
     }
 
+    @Override
+    public void onFieldsChanged(int fields) {
+        if ((fields & (DatePickerDialog.CHANGED_YEAR | DatePickerDialog.CHANGED_MONTH
+                | DatePickerDialog.CHANGED_CONSTRAINTS)) == 0) return;
+        onDateChanged();
+    }
+
     @Override
     public void onDateChanged() {
+        // The selectable months depend on the selected year
+        init();
         mAdapter.notifyDataSetChanged();
-        postSetSelectionCentered(mController.getSelectedDay().month);
+        postSetSelectionCentered(mAdapter.getPosition(mController.getSelectedDay().month));
     }
 
     @Override
@@ -0,0 +1,143 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.util.LruCache;
+import android.util.SparseBooleanArray;
+
+import java.util.ArrayList;
+
+/**
+ * Renders months into bitmaps on a worker thread, so a fling can blit the months it exposes
+ * instead of laying out and drawing their grids on the main thread. The drawing is done by a
+ * private, detached {@link MonthView} which is only ever touched by the worker thread, so the
+ * bitmaps look exactly like the live views.
+ *
+ * Bitmaps evicted from the cache are only reused once the list is idle again, which is when
+ * no view can still be showing them. All methods must be called on the main thread.
+ */
+public class MonthPreRenderer {
+    // The months around the viewport in both directions
+    private static final int CACHE_SIZE = 6;
+
+    private final MonthView mRenderView;
+    private final MonthParams mRenderParams = new MonthParams();
+    private final HandlerThread mThread;
+    private final Handler mWorker;
+    private final Handler mMain = new Handler(Looper.getMainLooper());
+    private final SparseBooleanArray mPending = new SparseBooleanArray();
+    private final ArrayList<Bitmap> mEvicted = new ArrayList<>();
+    private final ArrayList<Bitmap> mFree = new ArrayList<>();
+    private final LruCache<Integer, Bitmap> mBitmaps = new LruCache<Integer, Bitmap>(CACHE_SIZE) {
+        @Override
+        protected void entryRemoved(boolean evicted, Integer key, Bitmap oldValue, Bitmap newValue) {
+            if (oldValue != newValue) mEvicted.add(oldValue);
+        }
+    };
+    // Incremented whenever cached bitmaps become stale, results of older requests are dropped
+    private int mGeneration;
+    private boolean mReleased;
+
+    /**
+     * @param renderView A new month view, created on the main thread and not used for anything else
+     */
+    public MonthPreRenderer(MonthView renderView) {
+        mRenderView = renderView;
+        mThread = new HandlerThread("MonthPreRenderer");
+        mThread.start();
+        mWorker = new Handler(mThread.getLooper());
+    }
+
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @param width The width the month is shown at
+     * @return the rendered month, or null if it is not available at that width
+     */
+    public Bitmap get(int year, int month, int width) {
+        Bitmap bitmap = mBitmaps.get(year * MonthAdapter.MONTHS_IN_YEAR + month);
+        return bitmap != null && bitmap.getWidth() == width ? bitmap : null;
+    }
+
+    /**
+     * Starts rendering a month unless it is already cached or in progress
+     * @param dayStates The state of the days of the month
+     * @param selectedDay The selected day in this month, or -1
+     * @param weekStart The first day of the week
+     * @param width The width of the month views
+     */
+    public void request(MonthDayStateCache.MonthDayState dayStates, int selectedDay, int weekStart,
+                        final int width) {
+        final int key = dayStates.year * MonthAdapter.MONTHS_IN_YEAR + dayStates.month;
+        if (mReleased || width <= 0 || mPending.get(key) || get(dayStates.year, dayStates.month, width) != null) {
+            return;
+        }
+        mPending.put(key, true);
+        final MonthDayStateCache.MonthDayState states = dayStates;
+        final int selected = selectedDay;
+        final int firstDay = weekStart;
+        final int generation = mGeneration;
+        final Bitmap reuse = takeFree();
+        mWorker.post(new Runnable() {
+            @Override
+            public void run() {
+                mRenderView.setDayStates(states);
+                mRenderView.bind(mRenderParams.set(states.year, states.month, selected, firstDay));
+                final int height = mRenderView.getContentHeight();
+                Bitmap bitmap = reuse;
+                if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+                    bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+                } else {
+                    bitmap.eraseColor(Color.TRANSPARENT);
+                }
+                mRenderView.renderTo(new Canvas(bitmap), width);
+                final Bitmap result = bitmap;
+                mMain.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        mPending.delete(key);
+                        if (mReleased) return;
+                        if (generation != mGeneration) mEvicted.add(result);
+                        else mBitmaps.put(key, result);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Drops all rendered months, e.g. when the selection or the constraints change
+     */
+    public void invalidate() {
+        mGeneration++;
+        mBitmaps.evictAll();
+    }
+
+    /**
+     * Called once the list is idle and no view shows a bitmap anymore, so evicted bitmaps
+     * can be reused
+     */
+    public void onIdle() {
+        mFree.addAll(mEvicted);
+        mEvicted.clear();
+    }
+
+    /**
+     * Stops the worker thread. The renderer can not be used afterwards.
+     */
+    public void release() {
+        mReleased = true;
+        mThread.quit();
+        mBitmaps.evictAll();
+        mEvicted.clear();
+        mFree.clear();
+    }
+
+    private Bitmap takeFree() {
+        return mFree.isEmpty() ? null : mFree.remove(mFree.size() - 1);
+    }
+}
@@ -18,13 +18,13 @@ package com.kenmeidearu.materialdatetimepicker.date;
 
 import android.content.Context;
 import android.content.res.Resources;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Paint.Align;
 import android.graphics.Paint.Style;
 import android.graphics.Rect;
 import android.graphics.Typeface;
-import android.os.Build;
 import android.os.Bundle;
 import android.support.annotation.NonNull;
 import android.support.v4.content.ContextCompat;
@@ -38,14 +38,13 @@ import android.view.View;
 import android.view.accessibility.AccessibilityEvent;
 import android.view.accessibility.AccessibilityNodeInfo;
 
+import com.kenmeidearu.materialdatetimepicker.PickerMetrics;
 import com.kenmeidearu.materialdatetimepicker.R;
 import com.kenmeidearu.materialdatetimepicker.TypefaceHelper;
 import com.kenmeidearu.materialdatetimepicker.date.MonthAdapter.CalendarDay;
 
 import java.security.InvalidParameterException;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.Formatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -134,8 +133,24 @@ public abstract class MonthView extends View {
     protected Paint mSelectedCirclePaint;
     protected Paint mMonthDayLabelPaint;
 
-    private final Formatter mFormatter;
-    private final StringBuilder mStringBuilder;
+    // Day numbers formatted for the current locale, replaced as a whole so months can also be
+    // drawn on a background thread
+    private static volatile DayLabels sDayLabels;
+
+    private static class DayLabels {
+        final Locale locale;
+        // Index 0 is unused
+        final String[] labels = new String[32];
+
+        DayLabels(Locale locale) {
+            this.locale = locale;
+            for (int i = 1; i < labels.length; i++) labels[i] = String.format(locale, "%d", i);
+        }
+    }
+
+    // Resolved when the month is bound, so drawing a frame does not look up any label
+    private String mMonthTitle;
+    private final String[] mWeekDayLabels = new String[DEFAULT_NUM_DAYS];
 
     // The Julian day of the first day displayed by this item
     protected int mFirstJulianDay = -1;
@@ -169,11 +184,18 @@ public abstract class MonthView extends View {
     protected int mSelectedRight = -1;
 
     private final Calendar mCalendar;
+    private final Calendar mTodayCalendar = EpochDayIndex.newCalendar();
+    // Rendered in the background while flinging, null when drawing live
+    private Bitmap mPrerendered;
+    private final MonthParams mParams = new MonthParams();
     protected final Calendar mDayLabelCalendar;
     private final MonthViewTouchHelper mTouchHelper;
 
     protected int mNumRows = DEFAULT_NUM_ROWS;
 
+    // Cached state of the days in this month, null if the adapter does not provide one
+    protected MonthDayStateCache.MonthDayState mDayStates;
+
     // Optional listener for handling day click actions
     protected OnDayClickListener mOnDayClickListener;
 
@@ -197,31 +219,14 @@ public abstract class MonthView extends View {
         mController = controller;
         Resources res = context.getResources();
 
-        mDayLabelCalendar = Calendar.getInstance();
-        mCalendar = Calendar.getInstance();
+        // The grid is laid out with proleptic Gregorian epoch days, the calendars have to agree
+        mDayLabelCalendar = EpochDayIndex.newCalendar();
+        mCalendar = EpochDayIndex.newCalendar();
 
         mDayOfWeekTypeface = res.getString(R.string.mdtp_day_of_week_label_typeface);
         mMonthTitleTypeface = res.getString(R.string.mdtp_sans_serif);
 
-        boolean darkTheme = mController != null && mController.isThemeDark();
-        if(darkTheme) {
-            mDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_normal_dark_theme);
-            mMonthDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_month_day_dark_theme);
-            mDisabledDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_disabled_dark_theme);
-            mHighlightedDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_highlighted_dark_theme);
-        }
-        else {
-            mDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_normal);
-            mMonthDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_month_day);
-            mDisabledDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_disabled);
-            mHighlightedDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_highlighted);
-        }
-        mSelectedDayTextColor = ContextCompat.getColor(context, R.color.mdtp_white);
-        mTodayNumberColor = mController.getAccentColor();
-        mMonthTitleColor = ContextCompat.getColor(context, R.color.mdtp_white);
-
-        mStringBuilder = new StringBuilder(50);
-        mFormatter = new Formatter(mStringBuilder, Locale.getDefault());
+        initColors(context);
 
         MINI_DAY_NUMBER_TEXT_SIZE = res.getDimensionPixelSize(R.dimen.mdtp_day_number_size);
         MONTH_LABEL_TEXT_SIZE = res.getDimensionPixelSize(R.dimen.mdtp_month_label_size);
@@ -243,8 +248,23 @@ public abstract class MonthView extends View {
         initView();
     }
 
+    /**
+     * Moves this view to another picker, e.g. when views are shared between dialogs through
+     * a common view pool. Colors are resolved again from the new controller.
+     *
+     * @param controller The controller of the picker this view is now shown in, or null to
+     *                   release the previous one while the view is not shown
+     */
     public void setDatePickerController(DatePickerController controller) {
+        if (controller == mController) return;
         mController = controller;
+        mDayStates = null;
+        if (controller == null) return;
+        initColors(getContext());
+        mMonthTitlePaint.setColor(mDayTextColor);
+        mSelectedCirclePaint.setColor(mTodayNumberColor);
+        mSelectedCirclePaint.setAlpha(SELECTED_CIRCLE_ALPHA);
+        mMonthDayLabelPaint.setColor(mMonthDayTextColor);
     }
 
     protected MonthViewTouchHelper getMonthViewTouchHelper() {
@@ -290,6 +310,25 @@ public abstract class MonthView extends View {
      * Sets up the text and style properties for painting. Override this if you
      * want to use a different paint.
      */
+    private void initColors(Context context) {
+        boolean darkTheme = mController != null && mController.isThemeDark();
+        if(darkTheme) {
+            mDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_normal_dark_theme);
+            mMonthDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_month_day_dark_theme);
+            mDisabledDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_disabled_dark_theme);
+            mHighlightedDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_highlighted_dark_theme);
+        }
+        else {
+            mDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_normal);
+            mMonthDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_month_day);
+            mDisabledDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_disabled);
+            mHighlightedDayTextColor = ContextCompat.getColor(context, R.color.mdtp_date_picker_text_highlighted);
+        }
+        mSelectedDayTextColor = ContextCompat.getColor(context, R.color.mdtp_white);
+        mTodayNumberColor = mController.getAccentColor();
+        mMonthTitleColor = ContextCompat.getColor(context, R.color.mdtp_white);
+    }
+
     protected void initView() {
         mMonthTitlePaint = new Paint();
         mMonthTitlePaint.setFakeBoldText(true);
@@ -327,11 +366,53 @@ public abstract class MonthView extends View {
 
     @Override
     protected void onDraw(Canvas canvas) {
+        if (mPrerendered != null && mPrerendered.getWidth() == mWidth) {
+            canvas.drawBitmap(mPrerendered, 0, 0, null);
+            return;
+        }
+        final PickerMetrics metrics = mController != null ? mController.getMetrics() : null;
+        final long start = metrics != null ? metrics.beginDraw() : 0;
+        drawMonth(canvas);
+        if (metrics != null) metrics.endDraw(start);
+    }
+
+    private void drawMonth(Canvas canvas) {
         drawMonthTitle(canvas);
         drawMonthDayLabels(canvas);
         drawMonthNums(canvas);
     }
 
+    /**
+     * Sets a bitmap of this month rendered by a {@link MonthPreRenderer}, which is drawn instead
+     * of the grid until it is cleared again.
+     *
+     * @param prerendered The rendered month, or null to draw live
+     */
+    public void setPrerendered(Bitmap prerendered) {
+        if (mPrerendered == prerendered) return;
+        mPrerendered = prerendered;
+        invalidate();
+    }
+
+    /**
+     * @return the height this month is drawn at with its current parameters
+     */
+    public int getContentHeight() {
+        return mRowHeight * mNumRows + getMonthHeaderSize() + 5;
+    }
+
+    /**
+     * Draws the month onto a canvas which is not attached to the window, e.g. the canvas of
+     * a bitmap. Only call this on a view which is not attached, as it changes its width.
+     *
+     * @param canvas The canvas to draw on
+     * @param width The width to lay out the month for
+     */
+    void renderTo(Canvas canvas, int width) {
+        mWidth = width;
+        drawMonth(canvas);
+    }
+
     private int mDayOfWeekStart = 0;
 
     /**
@@ -343,59 +424,88 @@ public abstract class MonthView extends View {
      *
      * @param params A map of the new parameters, see
      *            {@link #VIEW_PARAMS_HEIGHT}
+     * @deprecated Boxes every value, use {@link #bind(MonthParams)} instead
      */
+    @Deprecated
     public void setMonthParams(HashMap<String, Integer> params) {
         if (!params.containsKey(VIEW_PARAMS_MONTH) && !params.containsKey(VIEW_PARAMS_YEAR)) {
             throw new InvalidParameterException("You must specify month and year for this view");
         }
         setTag(params);
-        // We keep the current value for any params not present
-        if (params.containsKey(VIEW_PARAMS_HEIGHT)) {
-            mRowHeight = params.get(VIEW_PARAMS_HEIGHT);
-            if (mRowHeight < MIN_HEIGHT) {
-                mRowHeight = MIN_HEIGHT;
-            }
-        }
-        if (params.containsKey(VIEW_PARAMS_SELECTED_DAY)) {
-            mSelectedDay = params.get(VIEW_PARAMS_SELECTED_DAY);
+        mParams.set(params.get(VIEW_PARAMS_YEAR), params.get(VIEW_PARAMS_MONTH),
+                params.containsKey(VIEW_PARAMS_SELECTED_DAY)
+                        ? params.get(VIEW_PARAMS_SELECTED_DAY) : mSelectedDay,
+                params.containsKey(VIEW_PARAMS_WEEK_START)
+                        ? params.get(VIEW_PARAMS_WEEK_START) : MonthParams.UNSET);
+        if (params.containsKey(VIEW_PARAMS_HEIGHT)) mParams.height = params.get(VIEW_PARAMS_HEIGHT);
+        bind(mParams);
+    }
+
+    /**
+     * @return the parameters of this view, which the adapter fills in and passes to
+     * {@link #bind(MonthParams)} so every bind reuses the same instance
+     */
+    public MonthParams getMonthParams() {
+        return mParams;
+    }
+
+    /**
+     * Sets all the parameters for displaying this month. Optional parameters which are
+     * {@link MonthParams#UNSET} keep their current value, see {@link MonthParams}.
+     * Subclasses which used to override {@link #setMonthParams(HashMap)} should override
+     * this method instead.
+     *
+     * @param params The new parameters
+     */
+    public void bind(MonthParams params) {
+        if (params.height != MonthParams.UNSET) {
+            mRowHeight = Math.max(params.height, MIN_HEIGHT);
         }
+        mSelectedDay = params.selectedDay;
+        mMonth = params.month;
+        mYear = params.year;
 
-        // Allocate space for caching the day numbers and focus values
-        mMonth = params.get(VIEW_PARAMS_MONTH);
-        mYear = params.get(VIEW_PARAMS_YEAR);
+        mCalendar.set(mYear, mMonth, 1);
+        mDayOfWeekStart = DateRule.dayOfWeek(EpochDayIndex.toEpochDay(mYear, mMonth, 1));
+        mWeekStart = params.weekStart != MonthParams.UNSET
+                ? params.weekStart : mCalendar.getFirstDayOfWeek();
+        mNumCells = EpochDayIndex.daysInMonth(mYear, mMonth);
 
         // Figure out what day today is
-        //final Time today = new Time(Time.getCurrentTimezone());
-        //today.setToNow();
-        final Calendar today = Calendar.getInstance();
-        mHasToday = false;
-        mToday = -1;
-
-        mCalendar.set(Calendar.MONTH, mMonth);
-        mCalendar.set(Calendar.YEAR, mYear);
-        mCalendar.set(Calendar.DAY_OF_MONTH, 1);
-        mDayOfWeekStart = mCalendar.get(Calendar.DAY_OF_WEEK);
-
-        if (params.containsKey(VIEW_PARAMS_WEEK_START)) {
-            mWeekStart = params.get(VIEW_PARAMS_WEEK_START);
-        } else {
-            mWeekStart = mCalendar.getFirstDayOfWeek();
-        }
-
-        mNumCells = mCalendar.getActualMaximum(Calendar.DAY_OF_MONTH);
-        for (int i = 0; i < mNumCells; i++) {
-            final int day = i + 1;
-            if (sameDay(day, today)) {
-                mHasToday = true;
-                mToday = day;
-            }
-        }
+        mToday = findToday();
+        mHasToday = mToday != -1;
         mNumRows = calculateNumRows();
 
+        mMonthTitle = MonthLabelCache.getMonthAndYear(getContext(), mYear, mMonth);
+        for (int i = 0; i < mWeekDayLabels.length; i++) {
+            mWeekDayLabels[i] = MonthLabelCache.getWeekDayLabel((i + mWeekStart - 1) % DEFAULT_NUM_DAYS + 1);
+        }
+
         // Invalidate cached accessibility information.
         mTouchHelper.invalidateRoot();
     }
 
+    private int findToday() {
+        if (mDayStates != null && mDayStates.matches(mYear, mMonth)) {
+            return mDayStates.today != 0 ? Integer.numberOfTrailingZeros(mDayStates.today) + 1 : -1;
+        }
+        mTodayCalendar.setTimeInMillis(System.currentTimeMillis());
+        if (mTodayCalendar.get(Calendar.YEAR) != mYear || mTodayCalendar.get(Calendar.MONTH) != mMonth) {
+            return -1;
+        }
+        return mTodayCalendar.get(Calendar.DAY_OF_MONTH);
+    }
+
+    /**
+     * Sets the precomputed state of the days in this view. Lookups for the month that is
+     * currently displayed become bit tests instead of calls to the controller.
+     *
+     * @param dayStates The cached state of the month, or null to query the controller
+     */
+    public void setDayStates(MonthDayStateCache.MonthDayState dayStates) {
+        mDayStates = dayStates;
+    }
+
     public void setSelectedDay(int day) {
         mSelectedDay = day;
     }
@@ -406,22 +516,12 @@ public abstract class MonthView extends View {
     }
 
     private int calculateNumRows() {
-        int offset = findDayOffset();
-        int dividend = (offset + mNumCells) / mNumDays;
-        int remainder = (offset + mNumCells) % mNumDays;
-        return (dividend + (remainder > 0 ? 1 : 0));
-    }
-
-    private boolean sameDay(int day, Calendar today) {
-        return mYear == today.get(Calendar.YEAR) &&
-                mMonth == today.get(Calendar.MONTH) &&
-                day == today.get(Calendar.DAY_OF_MONTH);
+        return MonthGeometry.calculateNumRows(findDayOffset(), mNumCells, mNumDays);
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec), mRowHeight * mNumRows
-                + getMonthHeaderSize() + 5);
+        setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec), getContentHeight());
     }
 
     @Override
@@ -449,16 +549,8 @@ public abstract class MonthView extends View {
 
     @NonNull
     private String getMonthAndYearString() {
-        Locale locale = Locale.getDefault();
-        String pattern = "MMMM yyyy";
-
-        if(Build.VERSION.SDK_INT < 18) pattern = getContext().getResources().getString(R.string.mdtp_date_v1_monthyear);
-        else pattern = DateFormat.getBestDateTimePattern(locale, pattern);
-
-        SimpleDateFormat formatter = new SimpleDateFormat(pattern, locale);
-        formatter.applyLocalizedPattern(pattern);
-        mStringBuilder.setLength(0);
-        return formatter.format(mCalendar.getTime());
+        if (mMonthTitle == null) mMonthTitle = MonthLabelCache.getMonthAndYear(getContext(), mYear, mMonth);
+        return mMonthTitle;
     }
 
     protected void drawMonthTitle(Canvas canvas) {
@@ -474,9 +566,10 @@ public abstract class MonthView extends View {
         for (int i = 0; i < mNumDays; i++) {
             int x = (2 * i + 1) * dayWidthHalf + mEdgePadding;
 
-            int calendarDay = (i + mWeekStart) % mNumDays;
-            mDayLabelCalendar.set(Calendar.DAY_OF_WEEK, calendarDay);
-            String weekString = getWeekDayLabel(mDayLabelCalendar);
+            String weekString = i < mWeekDayLabels.length ? mWeekDayLabels[i] : null;
+            if (weekString == null) {
+                weekString = MonthLabelCache.getWeekDayLabel((i + mWeekStart - 1) % mNumDays + 1);
+            }
             canvas.drawText(weekString, x, y, mMonthDayLabelPaint);
         }
     }
@@ -512,6 +605,23 @@ public abstract class MonthView extends View {
         }
     }
 
+    /**
+     * Returns the day number as drawn in the grid. The labels are formatted once per locale,
+     * so drawing a day never allocates.
+     *
+     * @param day The day of the month (1-31)
+     * @return the localized day number
+     */
+    protected static String getDayLabel(int day) {
+        final Locale locale = Locale.getDefault();
+        DayLabels dayLabels = sDayLabels;
+        if (dayLabels == null || (locale != dayLabels.locale && !locale.equals(dayLabels.locale))) {
+            dayLabels = new DayLabels(locale);
+            sDayLabels = dayLabels;
+        }
+        return dayLabels.labels[day];
+    }
+
     /**
      * This method should draw the month day.  Implemented by sub-classes to allow customization.
      *
@@ -530,8 +640,7 @@ public abstract class MonthView extends View {
             int x, int y, int startX, int stopX, int startY, int stopY);
 
     protected int findDayOffset() {
-        return (mDayOfWeekStart < mWeekStart ? (mDayOfWeekStart + mNumDays) : mDayOfWeekStart)
-                - mWeekStart;
+        return MonthGeometry.findDayOffset(mDayOfWeekStart, mWeekStart, mNumDays);
     }
 
 
@@ -581,7 +690,7 @@ public abstract class MonthView extends View {
      */
     private void onDayClick(int day) {
         // If the min / max date are set, only process the click if it's a valid selection.
-        if (mController.isOutOfRange(mYear, mMonth, day)) {
+        if (isOutOfRange(mYear, mMonth, day)) {
             return;
         }
 
@@ -601,64 +710,23 @@ public abstract class MonthView extends View {
      * @return true if the given date should be highlighted
      */
     protected boolean isHighlighted(int year, int month, int day) {
-        Calendar[] highlightedDays = mController.getHighlightedDays();
-        if(highlightedDays == null) return false;
-        for (Calendar c : highlightedDays) {
-            if(year < c.get(Calendar.YEAR)) break;
-            if(year > c.get(Calendar.YEAR)) continue;
-            if(month < c.get(Calendar.MONTH)) break;
-            if(month > c.get(Calendar.MONTH)) continue;
-            if(day < c.get(Calendar.DAY_OF_MONTH)) break;
-            if(day > c.get(Calendar.DAY_OF_MONTH)) continue;
-            return true;
+        if (mDayStates != null && mDayStates.matches(year, month)) {
+            return mDayStates.isHighlighted(day);
         }
-        return false;
+        return mController.isHighlighted(year, month, day);
     }
 
     /**
-     * Return a 1 or 2 letter String for use as a weekday label
-     * @param day The day for which to generate a label
-     * @return The weekday label
+     * @param year
+     * @param month
+     * @param day
+     * @return true if the given date can not be selected
      */
-    private String getWeekDayLabel(Calendar day) {
-        Locale locale = Locale.getDefault();
-
-        // Localised short version of the string is not available on API < 18
-        if(Build.VERSION.SDK_INT < 18) {
-            String dayName = new SimpleDateFormat("E", locale).format(day.getTime());
-            String dayLabel = dayName.toUpperCase(locale).substring(0, 1);
-
-            // Chinese labels should be fetched right to left
-            if (locale.equals(Locale.CHINA) || locale.equals(Locale.CHINESE) || locale.equals(Locale.SIMPLIFIED_CHINESE) || locale.equals(Locale.TRADITIONAL_CHINESE)) {
-                int len = dayName.length();
-                dayLabel = dayName.substring(len -1, len);
-            }
-
-            // Most hebrew labels should select the second to last character
-            if (locale.getLanguage().equals("he") || locale.getLanguage().equals("iw")) {
-                if(mDayLabelCalendar.get(Calendar.DAY_OF_WEEK) != Calendar.SATURDAY) {
-                    int len = dayName.length();
-                    dayLabel = dayName.substring(len - 2, len - 1);
-                }
-                else {
-                    // I know this is duplication, but it makes the code easier to grok by
-                    // having all hebrew code in the same block
-                    dayLabel = dayName.toUpperCase(locale).substring(0, 1);
-                }
-            }
-
-            // Catalan labels should be two digits in lowercase
-            if (locale.getLanguage().equals("ca"))
-                dayLabel = dayName.toLowerCase().substring(0,2);
-
-            // Correct single character label in Spanish is X
-            if (locale.getLanguage().equals("es") && day.get(Calendar.DAY_OF_WEEK) == Calendar.WEDNESDAY)
-                dayLabel = "X";
-
-            return dayLabel;
+    protected boolean isOutOfRange(int year, int month, int day) {
+        if (mDayStates != null && mDayStates.matches(year, month)) {
+            return mDayStates.isDisabled(day);
         }
-        // Getting the short label is a one liner on API >= 18
-        return new SimpleDateFormat("EEEEE", locale).format(day.getTime());
+        return mController.isOutOfRange(year, month, day);
     }
 
     /**
@@ -704,7 +772,7 @@ public abstract class MonthView extends View {
         private static final String DATE_FORMAT = "dd MMMM yyyy";
 
         private final Rect mTempRect = new Rect();
-        private final Calendar mTempCalendar = Calendar.getInstance();
+        private final Calendar mTempCalendar = EpochDayIndex.newCalendar();
 
         public MonthViewTouchHelper(View host) {
             super(host);
@@ -803,8 +871,7 @@ public abstract class MonthView extends View {
          */
         protected CharSequence getItemDescription(int day) {
             mTempCalendar.set(mYear, mMonth, day);
-            final CharSequence date = DateFormat.format(DATE_FORMAT,
-                    mTempCalendar.getTimeInMillis());
+            final CharSequence date = DateFormat.format(DATE_FORMAT, mTempCalendar);
 
             if (day == mSelectedDay) {
                 return getContext().getString(R.string.mdtp_item_is_selected, date);
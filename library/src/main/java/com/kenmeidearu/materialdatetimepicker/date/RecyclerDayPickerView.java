@@ -0,0 +1,356 @@
+package com.kenmeidearu.materialdatetimepicker.date;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.database.DataSetObserver;
+import android.graphics.PointF;
+import android.os.Bundle;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.LinearSmoothScroller;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * A RecyclerView based alternative to {@link DayPickerView}. Month views are recycled through a
+ * {@link RecyclerView.RecycledViewPool} which is shared by every picker of the same activity, so
+ * opening a dialog again does not inflate the months again, and the layout manager lays out the
+ * next month ahead of time. Scrolling snaps to whole months just like {@link DayPickerView}.
+ *
+ * Recycled months drop their controller and listener, so pooled views never keep a dismissed
+ * dialog alive, and the pool itself is cleared when its activity is destroyed.
+ *
+ * Binding is delegated to a regular {@link MonthAdapter}, so both implementations draw the same.
+ */
+public class RecyclerDayPickerView extends RecyclerView implements MonthListView {
+    // How long the GoTo fling animation should last, per inch
+    private static final float GOTO_SCROLL_MILLIS_PER_INCH = 50f;
+    // How many months ahead of the scroll direction to load the availability for
+    private static final int PREFETCH_MONTHS = 2;
+    // Enough for the visible months plus the one laid out ahead
+    private static final int MAX_POOLED_VIEWS = 6;
+    private static final int VIEW_TYPE_MONTH = 0;
+
+    private static WeakReference<Context> sPoolOwner;
+    private static RecycledViewPool sPool;
+    private static PoolReleaser sPoolReleaser;
+
+    private final DatePickerController mController;
+    private final MonthLayoutManager mLayoutManager;
+    private final MonthAdapter mMonthAdapter;
+    private final MonthAdapter.CalendarDay mSelectedDay = new MonthAdapter.CalendarDay();
+
+    public RecyclerDayPickerView(Context context, DatePickerController controller) {
+        super(context);
+        mController = controller;
+        mLayoutManager = new MonthLayoutManager(context);
+        // Hand the months to the shared pool when the dialog goes away
+        mLayoutManager.setRecycleChildrenOnDetach(true);
+        setLayoutManager(mLayoutManager);
+        setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.MATCH_PARENT));
+        setVerticalScrollBarEnabled(false);
+        setRecycledViewPool(getSharedPool(context));
+
+        mMonthAdapter = createMonthAdapter(context, controller);
+        final Adapter adapter = new MonthViewAdapter();
+        mMonthAdapter.registerDataSetObserver(new DataSetObserver() {
+            @Override
+            public void onChanged() {
+                adapter.notifyDataSetChanged();
+            }
+        });
+        // Only the month whose availability arrived has to be bound again
+        mMonthAdapter.setOnMonthLoadedListener(new MonthAvailabilityLoader.OnMonthLoadedListener() {
+            @Override
+            public void onMonthLoaded(int year, int month) {
+                final int position = mMonthAdapter.getMonthIndex().getPosition(year, month);
+                if (position >= 0 && position < adapter.getItemCount()) adapter.notifyItemChanged(position);
+            }
+        });
+        setAdapter(adapter);
+        addOnScrollListener(new SnapScrollListener());
+
+        mController.registerOnDateChangedListener(this);
+        onDateChanged();
+    }
+
+    /**
+     * Creates the adapter which binds the month views. Override this method to provide
+     * a custom adapter.
+     */
+    protected MonthAdapter createMonthAdapter(Context context, DatePickerController controller) {
+        return new SimpleMonthAdapter(context, controller);
+    }
+
+    /**
+     * Returns the view pool shared by all pickers of the activity owning the given context.
+     * The pool of a previous activity is dropped, and the pool of an activity is cleared
+     * as soon as the activity is destroyed.
+     */
+    private static RecycledViewPool getSharedPool(Context context) {
+        final Context owner = context instanceof Activity ? context : context.getApplicationContext();
+        if (sPool == null || sPoolOwner == null || sPoolOwner.get() != owner) {
+            releasePool();
+            sPool = new RecycledViewPool();
+            sPool.setMaxRecycledViews(VIEW_TYPE_MONTH, MAX_POOLED_VIEWS);
+            sPoolOwner = new WeakReference<>(owner);
+            if (owner instanceof Activity) {
+                sPoolReleaser = new PoolReleaser((Activity) owner);
+                ((Activity) owner).getApplication().registerActivityLifecycleCallbacks(sPoolReleaser);
+            }
+        }
+        return sPool;
+    }
+
+    private static void releasePool() {
+        if (sPool != null) sPool.clear();
+        sPool = null;
+        sPoolOwner = null;
+        if (sPoolReleaser != null) {
+            sPoolReleaser.mApplication.unregisterActivityLifecycleCallbacks(sPoolReleaser);
+            sPoolReleaser = null;
+        }
+    }
+
+    /**
+     * Clears the shared pool once the activity owning it is destroyed
+     */
+    private static class PoolReleaser implements Application.ActivityLifecycleCallbacks {
+        private final Application mApplication;
+        private final WeakReference<Activity> mOwner;
+
+        PoolReleaser(Activity owner) {
+            mApplication = owner.getApplication();
+            mOwner = new WeakReference<>(owner);
+        }
+
+        @Override
+        public void onActivityDestroyed(Activity activity) {
+            if (activity == mOwner.get() && sPoolReleaser == this) releasePool();
+        }
+
+        @Override
+        public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+        }
+
+        @Override
+        public void onActivityStarted(Activity activity) {
+        }
+
+        @Override
+        public void onActivityResumed(Activity activity) {
+        }
+
+        @Override
+        public void onActivityPaused(Activity activity) {
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+        }
+    }
+
+    @Override
+    public void onChange() {
+        mMonthAdapter.invalidateDayStates();
+        mMonthAdapter.setSelectedDay(mSelectedDay);
+    }
+
+    @Override
+    public void onFieldsChanged(int fields) {
+        if ((fields & DatePickerDialog.CHANGED_DATE) == 0) return;
+        onDateChanged();
+    }
+
+    @Override
+    public void onDateChanged() {
+        goTo(mController.getSelectedDay(), false, true, true);
+    }
+
+    @Override
+    public boolean goTo(MonthAdapter.CalendarDay day, boolean animate, boolean setSelected,
+                        boolean forceScroll) {
+        if (setSelected) {
+            mSelectedDay.set(day);
+            mMonthAdapter.setSelectedDay(mSelectedDay);
+        }
+        final int position = mMonthAdapter.getMonthIndex().getPosition(day.year, day.month);
+        if (position != mLayoutManager.findFirstCompletelyVisibleItemPosition() || forceScroll) {
+            if (animate) {
+                smoothScrollToMonth(position);
+                return true;
+            }
+            postSetSelection(position);
+        }
+        return false;
+    }
+
+    @Override
+    public int getMostVisiblePosition() {
+        final int height = getHeight();
+        int maxDisplayedHeight = 0;
+        int mostVisiblePosition = mLayoutManager.findFirstVisibleItemPosition();
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            int displayedHeight = Math.min(child.getBottom(), height) - Math.max(0, child.getTop());
+            if (displayedHeight > maxDisplayedHeight) {
+                mostVisiblePosition = getChildAdapterPosition(child);
+                maxDisplayedHeight = displayedHeight;
+            }
+        }
+        return mostVisiblePosition;
+    }
+
+    @Override
+    public void postSetSelection(final int position) {
+        clearFocus();
+        post(new Runnable() {
+            @Override
+            public void run() {
+                mLayoutManager.scrollToPositionWithOffset(position, 0);
+            }
+        });
+    }
+
+    @Override
+    public void setAvailabilityLoader(MonthAvailabilityLoader availability) {
+        mMonthAdapter.setAvailabilityLoader(availability);
+    }
+
+    /**
+     * Not needed here, the RecyclerView keeps bound months in its cache and lays out the
+     * next month ahead of time.
+     */
+    @Override
+    public void setPreRenderEnabled(boolean enabled) {
+    }
+
+    private void smoothScrollToMonth(int position) {
+        LinearSmoothScroller scroller = new LinearSmoothScroller(getContext()) {
+            @Override
+            public PointF computeScrollVectorForPosition(int targetPosition) {
+                return mLayoutManager.computeScrollVectorForPosition(targetPosition);
+            }
+
+            @Override
+            protected int getVerticalSnapPreference() {
+                return SNAP_TO_START;
+            }
+
+            @Override
+            protected float calculateSpeedPerPixel(android.util.DisplayMetrics displayMetrics) {
+                return GOTO_SCROLL_MILLIS_PER_INCH / displayMetrics.densityDpi;
+            }
+        };
+        scroller.setTargetPosition(position);
+        mLayoutManager.startSmoothScroll(scroller);
+    }
+
+    /**
+     * Lays out one extra month beyond the viewport, so the next month is bound before
+     * it scrolls into view.
+     */
+    private static class MonthLayoutManager extends LinearLayoutManager {
+        MonthLayoutManager(Context context) {
+            super(context, VERTICAL, false);
+        }
+
+        @Override
+        protected int getExtraLayoutSpace(State state) {
+            return getHeight() / 2;
+        }
+    }
+
+    private class MonthViewAdapter extends Adapter<ViewHolder> {
+        MonthViewAdapter() {
+            setHasStableIds(true);
+        }
+
+        @Override
+        public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            MonthView v = mMonthAdapter.createMonthView(parent.getContext());
+            v.setLayoutParams(new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT));
+            v.setClickable(true);
+            return new ViewHolder(v) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(ViewHolder holder, int position) {
+            MonthView v = (MonthView) holder.itemView;
+            // Pooled views may have been created by another dialog
+            v.setDatePickerController(mController);
+            v.setOnDayClickListener(mMonthAdapter);
+            mMonthAdapter.getView(position, v, RecyclerDayPickerView.this);
+        }
+
+        @Override
+        public void onViewRecycled(ViewHolder holder) {
+            // The pool outlives this dialog, pooled views must not keep it alive
+            MonthView v = (MonthView) holder.itemView;
+            v.setDatePickerController(null);
+            v.setOnDayClickListener(null);
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            return VIEW_TYPE_MONTH;
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return position;
+        }
+
+        @Override
+        public int getItemCount() {
+            return mMonthAdapter.getCount();
+        }
+    }
+
+    /**
+     * Snaps to the closest month once a fling ends, like {@link DayPickerView.ScrollStateRunnable},
+     * and prefetches availability in the scroll direction.
+     */
+    private class SnapScrollListener extends OnScrollListener {
+        private int mPreviousState = SCROLL_STATE_IDLE;
+
+        @Override
+        public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+            if (newState == SCROLL_STATE_IDLE && mPreviousState == SCROLL_STATE_SETTLING) {
+                int i = 0;
+                View child = getChildAt(i);
+                while (child != null && child.getBottom() <= 0) {
+                    child = getChildAt(++i);
+                }
+                if (child != null) {
+                    int firstPosition = mLayoutManager.findFirstVisibleItemPosition();
+                    int lastPosition = mLayoutManager.findLastVisibleItemPosition();
+                    boolean scroll = firstPosition != 0 && lastPosition != mMonthAdapter.getCount() - 1;
+                    final int top = child.getTop();
+                    final int bottom = child.getBottom();
+                    final int midpoint = getHeight() / 2;
+                    if (scroll && top < DayPickerView.LIST_TOP_OFFSET) {
+                        smoothScrollBy(0, bottom > midpoint ? top : bottom);
+                    }
+                }
+            }
+            mPreviousState = newState;
+        }
+
+        @Override
+        public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+            if (dy == 0) return;
+            mMonthAdapter.prefetch(mLayoutManager.findFirstVisibleItemPosition(),
+                    mLayoutManager.findLastVisibleItemPosition(), dy > 0, PREFETCH_MONTHS);
+        }
+    }
+}
@@ -22,6 +22,9 @@ import android.graphics.Typeface;
 import android.util.AttributeSet;
 
 public class SimpleMonthView extends MonthView {
+    // Resolved once, Typeface.create() is a lookup that is too costly to repeat for every cell
+    private static final Typeface TYPEFACE_NORMAL = Typeface.create(Typeface.DEFAULT, Typeface.NORMAL);
+    private static final Typeface TYPEFACE_BOLD = Typeface.create(Typeface.DEFAULT, Typeface.BOLD);
 
     public SimpleMonthView(Context context, AttributeSet attr, DatePickerController controller) {
         super(context, attr, controller);
@@ -30,31 +33,29 @@ public class SimpleMonthView extends MonthView {
     @Override
     public void drawMonthDay(Canvas canvas, int year, int month, int day,
             int x, int y, int startX, int stopX, int startY, int stopY) {
-        if (mSelectedDay == day) {
+        final boolean selected = mSelectedDay == day;
+        final boolean highlighted = isHighlighted(year, month, day);
+        final boolean outOfRange = isOutOfRange(year, month, day);
+
+        if (selected) {
             canvas.drawCircle(x , y - (MINI_DAY_NUMBER_TEXT_SIZE / 3), DAY_SELECTED_CIRCLE_SIZE,
                     mSelectedCirclePaint);
         }
 
-        if(isHighlighted(year, month, day)) {
-            mMonthNumPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-        }
-        else {
-            mMonthNumPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.NORMAL));
-        }
+        mMonthNumPaint.setTypeface(highlighted || (selected && !outOfRange)
+                ? TYPEFACE_BOLD : TYPEFACE_NORMAL);
 
         // If we have a mindate or maxdate, gray out the day number if it's outside the range.
-        if (mController.isOutOfRange(year, month, day)) {
+        if (outOfRange) {
             mMonthNumPaint.setColor(mDisabledDayTextColor);
-        }
-        else if (mSelectedDay == day) {
-            mMonthNumPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
+        } else if (selected) {
             mMonthNumPaint.setColor(mSelectedDayTextColor);
         } else if (mHasToday && mToday == day) {
             mMonthNumPaint.setColor(mTodayNumberColor);
         } else {
-            mMonthNumPaint.setColor(isHighlighted(year, month, day) ? mHighlightedDayTextColor : mDayTextColor);
+            mMonthNumPaint.setColor(highlighted ? mHighlightedDayTextColor : mDayTextColor);
         }
 
-        canvas.drawText(String.format("%d", day), x, y, mMonthNumPaint);
+        canvas.drawText(getDayLabel(day), x, y, mMonthNumPaint);
     }
 }
@@ -19,42 +19,57 @@ package com.kenmeidearu.materialdatetimepicker.date;
 import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.drawable.StateListDrawable;
-import android.util.Log;
+import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.accessibility.AccessibilityEvent;
 import android.widget.AdapterView;
 import android.widget.AdapterView.OnItemClickListener;
-import android.widget.ArrayAdapter;
+import android.widget.BaseAdapter;
 import android.widget.ListView;
-import android.widget.TextView;
 
 import com.kenmeidearu.materialdatetimepicker.R;
-import com.kenmeidearu.materialdatetimepicker.date.DatePickerDialog.OnDateChangedListener;
+import com.kenmeidearu.materialdatetimepicker.date.DatePickerDialog.OnFieldsChangedListener;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Locale;
 
 /**
- * Displays a selectable list of years.
+ * Displays a selectable list of hours, minutes or seconds.
  */
-public class TimePickerView extends ListView implements OnItemClickListener, OnDateChangedListener {
+public class TimePickerView extends ListView implements OnItemClickListener, OnFieldsChangedListener {
     private static final String TAG = "TimePickerView";
+    private static final int NUMERALS = 60;
+
+    // Shared by all lists, rebuilt when the default locale changes
+    private static Locale sNumeralLocale;
+    private static String[] sNumerals;
+    private static String[] sPaddedNumerals;
 
     private final DatePickerController mController;
     private TimeAdapter mAdapter;
     private int mViewSize;
     private int mChildSize;
-    private String typeControl;
+    private final Timepoint.TYPE mType;
     boolean AMPM;
     private TextViewWithCircularIndicator mSelectedView;
 
     /**
-     * @param context
+     * @deprecated Use {@link #TimePickerView(Context, DatePickerController, Timepoint.TYPE, boolean)}
      */
+    @Deprecated
     public TimePickerView(Context context, DatePickerController controller, String tc, boolean AmPM) {
+        this(context, controller, Timepoint.TYPE.valueOf(tc.toUpperCase(Locale.US)), AmPM);
+    }
+
+    /**
+     * @param context
+     * @param controller The controller of the dialog
+     * @param type Whether this list shows hours, minutes or seconds
+     * @param AmPM true for 24 hour mode
+     */
+    public TimePickerView(Context context, DatePickerController controller, Timepoint.TYPE type, boolean AmPM) {
         super(context);
-        typeControl=tc;
+        mType = type;
         AMPM=AmPM;
 
         mController = controller;
@@ -75,70 +90,23 @@ public class TimePickerView extends ListView implements OnItemClickListener, OnD
     }
 
     private void init(Context context) {
-        ArrayList<String> datatime = new ArrayList<>();
-        if(!AMPM){
-            switch (typeControl.toUpperCase()){
-                case "HOUR":
-                    for (int a = 1; a <= 12; a++) {
-                        datatime.add(String.format("%d", a));
-                    }
-                    break;
-                case "MINUTE":
-                    for (int a = 0; a <= 59; a++) {
-                        if(a<10){
-                            datatime.add("0"+String.format("%d", a));
-                        }else{
-                            datatime.add(String.format("%d", a));
-                        }
-                    }
-                    break;
-                case "SECOND":
-                    for (int a = 0; a <= 59; a++) {
-                        if(a<10){
-                            datatime.add("0"+String.format("%d", a));
-                        }else{
-                            datatime.add(String.format("%d", a));
-                        }
-                    }
-                    break;
-            }
-        }else{
-            switch (typeControl.toUpperCase()){
-                case "HOUR":
-                    for (int a = 0; a <= 23; a++) {
-                        if(a<10){
-                            datatime.add("0"+String.format("%d", a));
-                        }else{
-                            datatime.add(String.format("%d", a));
-                        }
-
-                    }
-                    break;
-                case "MINUTE":
-                    for (int a = 0; a <= 59; a++) {
-                        if(a<10){
-                            datatime.add("0"+String.format("%d", a));
-                        }else{
-                            datatime.add(String.format("%d", a));
-                        }
-                    }
-                    break;
-                case "SECOND":
-                    for (int a = 0; a <= 59; a++) {
-                        if(a<10){
-                            datatime.add("0"+String.format("%d", a));
-                        }else{
-                            datatime.add(String.format("%d", a));
-                        }
-                    }
-                    break;
-            }
-        }
-
-        mAdapter = new TimeAdapter(context, R.layout.mdtp_year_label_text_view, datatime);
+        mAdapter = new TimeAdapter(context);
         setAdapter(mAdapter);
     }
 
+    /**
+     * Only show every step-th value, e.g. 15 to show the quarter hours of a minute list
+     * @param step The distance between two rows, must divide 60. Hours always use a step of 1.
+     */
+    public void setStep(int step) {
+        if (step < 1 || NUMERALS % step != 0) {
+            throw new IllegalArgumentException("step must divide " + NUMERALS);
+        }
+        if (mType == Timepoint.TYPE.HOUR || step == mAdapter.mStep) return;
+        mAdapter.mStep = step;
+        onDateChanged();
+    }
+
     @Override
     public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
         mController.tryVibrate();
@@ -153,50 +121,124 @@ public class TimePickerView extends ListView implements OnItemClickListener, OnD
                 clickedView.requestLayout();
                 mSelectedView = clickedView;
             }
-            mController.onTimeSelected(getTimeFromTextView(clickedView),typeControl.toUpperCase());
+            mController.onTimeSelected(mAdapter.getValue(position), mType);
             mAdapter.notifyDataSetChanged();
         }
     }
 
-    private static int getTimeFromTextView(TextView view) {
-        return Integer.valueOf(view.getText().toString());
+    private int getChangedFlag() {
+        switch (mType) {
+            case HOUR:
+                return DatePickerDialog.CHANGED_HOUR;
+            case MINUTE:
+                return DatePickerDialog.CHANGED_MINUTE;
+            default:
+                return DatePickerDialog.CHANGED_SECOND;
+        }
+    }
+
+    /**
+     * @param value 0 through 59
+     * @param padded true to pad single digits with a leading zero
+     * @return the localized label of the value
+     */
+    private static synchronized String getNumeral(int value, boolean padded) {
+        final Locale locale = Locale.getDefault();
+        if (!locale.equals(sNumeralLocale)) {
+            String[] numerals = new String[NUMERALS];
+            String[] paddedNumerals = new String[NUMERALS];
+            for (int i = 0; i < NUMERALS; i++) {
+                numerals[i] = String.format(locale, "%d", i);
+                paddedNumerals[i] = String.format(locale, "%02d", i);
+            }
+            sNumerals = numerals;
+            sPaddedNumerals = paddedNumerals;
+            sNumeralLocale = locale;
+        }
+        return padded ? sPaddedNumerals[value] : sNumerals[value];
     }
 
-    private class TimeAdapter extends ArrayAdapter<String> {
+    /**
+     * Maps rows to values by their position, the hours in 12 hour mode run from 1 to 12
+     */
+    private class TimeAdapter extends BaseAdapter {
+        private final LayoutInflater mInflater;
+        int mStep = 1;
+
+        public TimeAdapter(Context context) {
+            mInflater = LayoutInflater.from(context);
+        }
 
-        public TimeAdapter(Context context, int resource, List<String> objects) {
-            super(context, resource, objects);
+        private boolean isTwelveHours() {
+            return mType == Timepoint.TYPE.HOUR && !AMPM;
+        }
+
+        int getValue(int position) {
+            if (isTwelveHours()) return position + 1;
+            return position * mStep;
+        }
+
+        /**
+         * @return the position of the row closest to, but not after, the currently selected value
+         */
+        int getSelectedPosition() {
+            final int value = getSelectedValue();
+            if (isTwelveHours()) return value - 1;
+            return value / mStep;
+        }
+
+        /**
+         * @return the currently selected value, as it is shown in this list
+         */
+        int getSelectedValue() {
+            final MonthAdapter.CalendarDay day = mController.getSelectedDay();
+            switch (mType) {
+                case HOUR:
+                    if (AMPM) return day.getHour();
+                    final int hour = day.getHour() % 12;
+                    return hour == 0 ? 12 : hour;
+                case MINUTE:
+                    return day.getMinute();
+                default:
+                    return day.getSecond();
+            }
         }
 
         @Override
-        public View getView(int position, View convertView, ViewGroup parent) {
+        public int getCount() {
+            if (mType == Timepoint.TYPE.HOUR) return AMPM ? 24 : 12;
+            return NUMERALS / mStep;
+        }
 
-            TextViewWithCircularIndicator v = (TextViewWithCircularIndicator)
-                    super.getView(position, convertView, parent);
+        @Override
+        public Object getItem(int position) {
+            return getValue(position);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return getValue(position);
+        }
+
+        @Override
+        public boolean hasStableIds() {
+            return true;
+        }
+
+        @Override
+        public View getView(int position, View convertView, ViewGroup parent) {
+            TextViewWithCircularIndicator v = (TextViewWithCircularIndicator) (convertView != null
+                    ? convertView
+                    : mInflater.inflate(R.layout.mdtp_year_label_text_view, parent, false));
+            final int time = getValue(position);
+            v.setText(getNumeral(time, !isTwelveHours()));
             v.setAccentColor(mController.getAccentColor(), mController.isThemeDark());
             v.requestLayout();
-            int time = getTimeFromTextView(v);
-            boolean selected=false;
-            switch (typeControl.toUpperCase()){
-                case "HOUR":
-                    if(!AMPM) {
-                        selected = mController.getSelectedDay().getHour()%12 == time;
-                    }else{
-                        selected = mController.getSelectedDay().getHour() == time;
-                    }
-                    break;
-                case "MINUTE":
-                    selected =mController.getSelectedDay().getMinute()== time;
-                    break;
-                case "SECOND":
-                    selected =mController.getSelectedDay().getSecond()== time;
-                    break;
-            }
+            boolean selected = getSelectedValue() == time;
             v.drawIndicator(selected);
             if (selected) {
                 mSelectedView = v;
             }
-           // Log.e("isi hour",time+","+mController.getSelectedDay().getHour()+","+mController.getSelectedDay().getHour()%12);
             return v;
         }
     }
@@ -224,28 +266,16 @@ public class TimePickerView extends ListView implements OnItemClickListener, OnD
         return firstChild.getTop();
     }
 
+    @Override
+    public void onFieldsChanged(int fields) {
+        if ((fields & getChangedFlag()) == 0) return;
+        onDateChanged();
+    }
+
     @Override
     public void onDateChanged() {
         mAdapter.notifyDataSetChanged();
-        int rubah=0;
-
-            switch (typeControl.toUpperCase()){
-                case "HOUR":
-                    if(!AMPM) {
-                        rubah = mController.getSelectedDay().getHour()%12;
-                    }else{
-                        rubah = mController.getSelectedDay().getHour();
-                    }
-                    break;
-                case "MINUTE":
-                    rubah=mController.getSelectedDay().getMinute();
-                    break;
-                case "SECOND":
-                    rubah=mController.getSelectedDay().getSecond();
-                    break;
-            }
-
-        postSetSelectionCentered(rubah);
+        postSetSelectionCentered(mAdapter.getSelectedPosition());
     }
 
     @Override
@@ -19,26 +19,28 @@ package com.kenmeidearu.materialdatetimepicker.date;
 import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.drawable.StateListDrawable;
+import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.accessibility.AccessibilityEvent;
 import android.widget.AdapterView;
 import android.widget.AdapterView.OnItemClickListener;
-import android.widget.ArrayAdapter;
+import android.widget.BaseAdapter;
 import android.widget.ListView;
-import android.widget.TextView;
+import android.widget.SectionIndexer;
 
 import com.kenmeidearu.materialdatetimepicker.R;
-import com.kenmeidearu.materialdatetimepicker.date.DatePickerDialog.OnDateChangedListener;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.kenmeidearu.materialdatetimepicker.date.DatePickerDialog.OnFieldsChangedListener;
 
 /**
  * Displays a selectable list of years.
  */
-public class YearPickerView extends ListView implements OnItemClickListener, OnDateChangedListener {
+public class YearPickerView extends ListView implements OnItemClickListener, OnFieldsChangedListener {
     private static final String TAG = "YearPickerView";
+    // Ranges wider than this get a fast scroll thumb
+    private static final int FAST_SCROLL_YEARS = 200;
+    // Ranges wider than this are indexed by century instead of by decade
+    private static final int CENTURY_SECTIONS_YEARS = 500;
 
     private final DatePickerController mController;
     private YearAdapter mAdapter;
@@ -69,12 +71,9 @@ public class YearPickerView extends ListView implements OnItemClickListener, OnD
     }
 
     private void init(Context context) {
-        ArrayList<String> years = new ArrayList<>();
-        for (int year = mController.getMinYear(); year <= mController.getMaxYear(); year++) {
-            years.add(String.format("%d", year));
-        }
-        mAdapter = new YearAdapter(context, R.layout.mdtp_year_label_text_view, years);
+        mAdapter = new YearAdapter(context);
         setAdapter(mAdapter);
+        setFastScrollEnabled(mAdapter.getCount() > FAST_SCROLL_YEARS);
     }
 
     @Override
@@ -91,28 +90,79 @@ public class YearPickerView extends ListView implements OnItemClickListener, OnD
                 clickedView.requestLayout();
                 mSelectedView = clickedView;
             }
-            mController.onYearSelected(getYearFromTextView(clickedView));
+            mController.onYearSelected(mAdapter.getYear(position));
             mAdapter.notifyDataSetChanged();
         }
     }
 
-    private static int getYearFromTextView(TextView view) {
-        return Integer.valueOf(view.getText().toString());
-    }
+    /**
+     * Computes the year of a row from its position, so only the labels of the rows on screen
+     * are ever formatted, no matter how wide the year range is.
+     */
+    private class YearAdapter extends BaseAdapter implements SectionIndexer {
+        private final LayoutInflater mInflater;
+        private int mMinYear;
+        private int mCount;
+        private int mYearsPerSection = 10;
+        private String[] mSections;
+
+        public YearAdapter(Context context) {
+            mInflater = LayoutInflater.from(context);
+            updateRange();
+        }
+
+        /**
+         * Reads the year range from the controller
+         * @return true if it changed
+         */
+        boolean updateRange() {
+            final int minYear = mController.getMinYear();
+            final int count = Math.max(0, mController.getMaxYear() - minYear + 1);
+            if (minYear == mMinYear && count == mCount) return false;
+            mMinYear = minYear;
+            mCount = count;
+            mYearsPerSection = count > CENTURY_SECTIONS_YEARS ? 100 : 10;
+            mSections = null;
+            return true;
+        }
+
+        int getYear(int position) {
+            return mMinYear + position;
+        }
 
-    private class YearAdapter extends ArrayAdapter<String> {
+        int getPosition(int year) {
+            return year - mMinYear;
+        }
+
+        @Override
+        public int getCount() {
+            return mCount;
+        }
+
+        @Override
+        public Object getItem(int position) {
+            return getYear(position);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return getYear(position);
+        }
 
-        public YearAdapter(Context context, int resource, List<String> objects) {
-            super(context, resource, objects);
+        @Override
+        public boolean hasStableIds() {
+            return true;
         }
 
         @Override
         public View getView(int position, View convertView, ViewGroup parent) {
-            TextViewWithCircularIndicator v = (TextViewWithCircularIndicator)
-                    super.getView(position, convertView, parent);
+            TextViewWithCircularIndicator v = (TextViewWithCircularIndicator) (convertView != null
+                    ? convertView
+                    : mInflater.inflate(R.layout.mdtp_year_label_text_view, parent, false));
+            final int year = getYear(position);
+            v.setText(String.format("%d", year));
             v.setAccentColor(mController.getAccentColor(), mController.isThemeDark());
             v.requestLayout();
-            int year = getYearFromTextView(v);
             boolean selected = mController.getSelectedDay().year == year;
             v.drawIndicator(selected);
             if (selected) {
@@ -120,6 +170,42 @@ public class YearPickerView extends ListView implements OnItemClickListener, OnD
             }
             return v;
         }
+
+        /**
+         * One section per decade, or per century for ranges wider than
+         * {@link #CENTURY_SECTIONS_YEARS}, labelled with the first year in the section.
+         */
+        @Override
+        public Object[] getSections() {
+            if (mSections == null) {
+                String[] sections = new String[getSectionForPosition(mCount - 1) + 1];
+                for (int i = 0; i < sections.length; i++) {
+                    sections[i] = String.format("%d", getYear(getPositionForSection(i)));
+                }
+                mSections = sections;
+            }
+            return mSections;
+        }
+
+        @Override
+        public int getPositionForSection(int sectionIndex) {
+            if (sectionIndex <= 0) return 0;
+            final int firstSection = floorDiv(mMinYear, mYearsPerSection);
+            return Math.min(mCount - 1,
+                    getPosition((firstSection + sectionIndex) * mYearsPerSection));
+        }
+
+        @Override
+        public int getSectionForPosition(int position) {
+            if (position <= 0) return 0;
+            return floorDiv(getYear(position), mYearsPerSection)
+                    - floorDiv(mMinYear, mYearsPerSection);
+        }
+
+        private int floorDiv(int x, int y) {
+            int q = x / y;
+            return (x % y != 0 && (x ^ y) < 0) ? q - 1 : q;
+        }
     }
 
     public void postSetSelectionCentered(final int position) {
@@ -145,10 +231,17 @@ public class YearPickerView extends ListView implements OnItemClickListener, OnD
         return firstChild.getTop();
     }
 
+    @Override
+    public void onFieldsChanged(int fields) {
+        if ((fields & (DatePickerDialog.CHANGED_YEAR | DatePickerDialog.CHANGED_CONSTRAINTS)) == 0) return;
+        onDateChanged();
+    }
+
     @Override
     public void onDateChanged() {
+        if (mAdapter.updateRange()) setFastScrollEnabled(mAdapter.getCount() > FAST_SCROLL_YEARS);
         mAdapter.notifyDataSetChanged();
-        postSetSelectionCentered(mController.getSelectedDay().year - mController.getMinYear());
+        postSetSelectionCentered(mAdapter.getPosition(mController.getSelectedDay().year));
     }
 
     @Override
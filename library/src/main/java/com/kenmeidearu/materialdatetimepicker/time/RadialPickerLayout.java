@@ -38,6 +38,7 @@ import android.view.accessibility.AccessibilityManager;
 import android.view.accessibility.AccessibilityNodeInfo;
 import android.widget.FrameLayout;
 
+import com.kenmeidearu.materialdatetimepicker.PickerMetrics;
 import com.kenmeidearu.materialdatetimepicker.R;
 
 import java.util.Calendar;
@@ -697,6 +698,8 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
 
     @Override
     public boolean onTouch(View v, MotionEvent event) {
+        final PickerMetrics metrics = mController != null ? mController.getMetrics() : null;
+        if (metrics != null) metrics.onTouch(this, event);
         final float eventX = event.getX();
         final float eventY = event.getY();
         int degrees;
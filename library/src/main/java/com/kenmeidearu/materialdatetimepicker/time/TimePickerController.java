@@ -1,5 +1,7 @@
 package com.kenmeidearu.materialdatetimepicker.time;
 
+import com.kenmeidearu.materialdatetimepicker.PickerMetrics;
+
 /**
  * A collection of methods which need to be shared with all components of the TimePicker
  *
@@ -53,4 +55,9 @@ public interface TimePickerController {
      * @return timepoint - the nearest valid timepoint
      */
     Timepoint roundToNearest(Timepoint time, Timepoint.TYPE type);
+
+    /**
+     * @return PickerMetrics - the metrics to report to, or null if no listener is set
+     */
+    PickerMetrics getMetrics();
 }
@@ -45,6 +45,10 @@ import android.widget.RelativeLayout;
 import android.widget.TextView;
 
 import com.kenmeidearu.materialdatetimepicker.HapticFeedbackController;
+import com.kenmeidearu.materialdatetimepicker.PackedInts;
+import com.kenmeidearu.materialdatetimepicker.PickerMetrics;
+import com.kenmeidearu.materialdatetimepicker.PickerMetricsListener;
+import com.kenmeidearu.materialdatetimepicker.PickerPrewarmer;
 import com.kenmeidearu.materialdatetimepicker.R;
 import com.kenmeidearu.materialdatetimepicker.TypefaceHelper;
 import com.kenmeidearu.materialdatetimepicker.Utils;
@@ -52,8 +56,6 @@ import com.kenmeidearu.materialdatetimepicker.time.RadialPickerLayout.OnValueSel
 
 import java.text.DateFormatSymbols;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Locale;
 
 /**
@@ -84,9 +86,9 @@ public class TimePickerDialog extends DialogFragment implements
     private static final String KEY_CANCEL_RESID = "cancel_resid";
     private static final String KEY_CANCEL_STRING = "cancel_string";
 
-    public static final int HOUR_INDEX = 0;
-    public static final int MINUTE_INDEX = 1;
-    public static final int SECOND_INDEX = 2;
+    public static final int HOUR_INDEX = TimeConstraints.HOUR_INDEX;
+    public static final int MINUTE_INDEX = TimeConstraints.MINUTE_INDEX;
+    public static final int SECOND_INDEX = TimeConstraints.SECOND_INDEX;
     public static final int AM = 0;
     public static final int PM = 1;
 
@@ -123,11 +125,13 @@ public class TimePickerDialog extends DialogFragment implements
     private boolean mThemeDark;
     private boolean mThemeDarkChanged;
     private boolean mVibrate;
+    private PickerMetrics mMetrics;
     private int mAccentColor = -1;
     private boolean mDismissOnPause;
-    private Timepoint[] mSelectableTimes;
     private Timepoint mMinTime;
     private Timepoint mMaxTime;
+    // The selection constraints in seconds of the day, which answer all lookups
+    private final TimeConstraints mConstraints = new TimeConstraints();
     private boolean mEnableSeconds;
     private boolean mEnableMinutes;
     private int mOkResid;
@@ -141,7 +145,7 @@ public class TimePickerDialog extends DialogFragment implements
     private String mDeletedKeyFormat;
     private boolean mInKbMode;
     private ArrayList<Integer> mTypedTimes;
-    private Node mLegalTimesTree;
+    private LegalTimesTree mLegalTimesTree;
     private int mAmKeyCode;
     private int mPmKeyCode;
 
@@ -265,6 +269,29 @@ public class TimePickerDialog extends DialogFragment implements
         mVibrate = vibrate;
     }
 
+    /**
+     * Set a listener which receives performance measurements of this picker, timing every
+     * measured event. Must be called before the dialog is shown.
+     *
+     * @param listener The listener, or null to stop measuring
+     */
+    @SuppressWarnings("unused")
+    public void setMetricsListener(PickerMetricsListener listener) {
+        setMetricsListener(listener, 1);
+    }
+
+    /**
+     * Set a listener which receives performance measurements of this picker, timing only one in
+     * every sampleRate binds, draws and touches. Must be called before the dialog is shown.
+     *
+     * @param listener The listener, or null to stop measuring
+     * @param sampleRate Time one in this many events
+     */
+    @SuppressWarnings("unused")
+    public void setMetricsListener(PickerMetricsListener listener, int sampleRate) {
+        mMetrics = listener == null ? null : new PickerMetrics(listener, sampleRate);
+    }
+
     /**
      * Set whether the picker should dismiss itself when it's pausing or whether it should try to survive an orientation change
      * @param dismissOnPause true if the picker should dismiss itself
@@ -298,8 +325,7 @@ public class TimePickerDialog extends DialogFragment implements
     }
 
     public void setMinTime(Timepoint minTime) {
-        if(mMaxTime != null && minTime.compareTo(mMaxTime) > 0)
-            throw new IllegalArgumentException("Minimum time must be smaller than the maximum time");
+        mConstraints.setMinTime(toSeconds(minTime));
         mMinTime = minTime;
     }
 
@@ -309,15 +335,15 @@ public class TimePickerDialog extends DialogFragment implements
     }
 
     public void setMaxTime(Timepoint maxTime) {
-        if(mMinTime != null && maxTime.compareTo(mMinTime) < 0)
-            throw new IllegalArgumentException("Maximum time must be greater than the minimum time");
+        mConstraints.setMaxTime(toSeconds(maxTime));
         mMaxTime = maxTime;
     }
 
     @SuppressWarnings("unused")
     public void setSelectableTimes(Timepoint[] selectableTimes) {
-        mSelectableTimes = selectableTimes;
-        Arrays.sort(mSelectableTimes);
+        int[] seconds = new int[selectableTimes.length];
+        for (int i = 0; i < seconds.length; i++) seconds[i] = toSeconds(selectableTimes[i]);
+        mConstraints.setSelectableTimes(seconds);
     }
 
     /**
@@ -331,22 +357,8 @@ public class TimePickerDialog extends DialogFragment implements
     public void setTimeInterval(@IntRange(from=1, to=24) int hourInterval,
                                 @IntRange(from=1, to=60) int minuteInterval,
                                 @IntRange(from=1, to=60) int secondInterval) {
-        List<Timepoint> timepoints = new ArrayList<>();
-
-        int hour = 0;
-        while (hour < 24) {
-            int minute = 0;
-            while (minute < 60) {
-                int second = 0;
-                while (second < 60) {
-                    timepoints.add(new Timepoint(hour, minute, second));
-                    second += secondInterval;
-                }
-                minute += minuteInterval;
-            }
-            hour += hourInterval;
-        }
-        setSelectableTimes(timepoints.toArray(new Timepoint[timepoints.size()]));
+        // Compiled straight into the bit set of selectable seconds, without creating Timepoints
+        mConstraints.setTimeInterval(hourInterval, minuteInterval, secondInterval);
     }
 
     /**
@@ -436,6 +448,7 @@ public class TimePickerDialog extends DialogFragment implements
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        if (mMetrics != null) mMetrics.onCreate();
         if (savedInstanceState != null && savedInstanceState.containsKey(KEY_INITIAL_TIME)
                     && savedInstanceState.containsKey(KEY_IS_24_HOUR_VIEW)) {
             mInitialTime = savedInstanceState.getParcelable(KEY_INITIAL_TIME);
@@ -447,9 +460,12 @@ public class TimePickerDialog extends DialogFragment implements
             mAccentColor = savedInstanceState.getInt(KEY_ACCENT);
             mVibrate = savedInstanceState.getBoolean(KEY_VIBRATE);
             mDismissOnPause = savedInstanceState.getBoolean(KEY_DISMISS);
-            mSelectableTimes = (Timepoint[])savedInstanceState.getParcelableArray(KEY_SELECTABLE_TIMES);
+            mConstraints.setSelectableTimes(
+                    PackedInts.fromRuns(PackedInts.unpack(savedInstanceState.getByteArray(KEY_SELECTABLE_TIMES))));
             mMinTime = savedInstanceState.getParcelable(KEY_MIN_TIME);
             mMaxTime = savedInstanceState.getParcelable(KEY_MAX_TIME);
+            mConstraints.setMinTime(mMinTime != null ? toSeconds(mMinTime) : -1);
+            mConstraints.setMaxTime(mMaxTime != null ? toSeconds(mMaxTime) : -1);
             mEnableSeconds = savedInstanceState.getBoolean(KEY_ENABLE_SECONDS);
             mEnableMinutes = savedInstanceState.getBoolean(KEY_ENABLE_MINUTES);
             mOkResid = savedInstanceState.getInt(KEY_OK_RESID);
@@ -463,18 +479,20 @@ public class TimePickerDialog extends DialogFragment implements
     public View onCreateView(LayoutInflater inflater, ViewGroup container,
             Bundle savedInstanceState) {
 
-        View view = inflater.inflate(R.layout.mdtp_time_picker_dialog, container,false);
+        // The prepared hierarchy has the dialog theme, it only fits when shown as a dialog
+        View view = getShowsDialog() ? PickerPrewarmer.takeView(getActivity(), R.layout.mdtp_time_picker_dialog) : null;
+        if (view == null) view = inflater.inflate(R.layout.mdtp_time_picker_dialog, container,false);
         KeyboardListener keyboardListener = new KeyboardListener();
         view.findViewById(R.id.time_picker_dialog).setOnKeyListener(keyboardListener);
 
         // If an accent color has not been set manually, get it from the context
         if (mAccentColor == -1) {
-            mAccentColor = Utils.getAccentColorFromThemeIfAvailable(getActivity());
+            mAccentColor = PickerPrewarmer.getAccentColor(getActivity());
         }
 
         // if theme mode has not been set by java code, check if it is specified in Style.xml
         if (!mThemeDarkChanged) {
-            mThemeDark = Utils.isDarkTheme(getActivity(), mThemeDark);
+            mThemeDark = PickerPrewarmer.isDarkTheme(getActivity(), mThemeDark);
         }
 
         Resources res = getResources();
@@ -710,6 +728,7 @@ public class TimePickerDialog extends DialogFragment implements
 
         mTimePicker.setBackgroundColor(mThemeDark? lightGray : circleBackground);
         view.findViewById(R.id.time_picker_dialog).setBackgroundColor(mThemeDark ? darkBackgroundColor : backgroundColor);
+        if (mMetrics != null) mMetrics.watchFirstFrame(view);
         return view;
     }
 
@@ -735,12 +754,14 @@ public class TimePickerDialog extends DialogFragment implements
     public void onResume() {
         super.onResume();
         mHapticFeedbackController.start();
+        if (mMetrics != null) mMetrics.onResume();
     }
 
     @Override
     public void onPause() {
         super.onPause();
         mHapticFeedbackController.stop();
+        if (mMetrics != null) mMetrics.onPause();
         if(mDismissOnPause) dismiss();
     }
 
@@ -761,6 +782,11 @@ public class TimePickerDialog extends DialogFragment implements
         if(mVibrate) mHapticFeedbackController.tryVibrate();
     }
 
+    @Override
+    public PickerMetrics getMetrics() {
+        return mMetrics;
+    }
+
     private void updateAmPmDisplay(int amOrPm) {
         if (amOrPm == AM) {
             mAmPmTextView.setText(mAmText);
@@ -791,7 +817,11 @@ public class TimePickerDialog extends DialogFragment implements
             outState.putInt(KEY_ACCENT, mAccentColor);
             outState.putBoolean(KEY_VIBRATE, mVibrate);
             outState.putBoolean(KEY_DISMISS, mDismissOnPause);
-            outState.putParcelableArray(KEY_SELECTABLE_TIMES, mSelectableTimes);
+            // Stored as packed runs of seconds of the day, a parcelable array can exceed the binder limit
+            final int[] selectableTimes = mConstraints.getSelectableTimes();
+            if (selectableTimes != null) {
+                outState.putByteArray(KEY_SELECTABLE_TIMES, PackedInts.pack(PackedInts.toRuns(selectableTimes)));
+            }
             outState.putParcelable(KEY_MIN_TIME, mMinTime);
             outState.putParcelable(KEY_MAX_TIME, mMaxTime);
             outState.putBoolean(KEY_ENABLE_SECONDS, mEnableSeconds);
@@ -839,83 +869,34 @@ public class TimePickerDialog extends DialogFragment implements
         finishKbMode(true);
     }
 
-    public boolean isOutOfRange(Timepoint current) {
-        if(mMinTime != null && mMinTime.compareTo(current) > 0) return true;
-
-        if(mMaxTime != null && mMaxTime.compareTo(current) < 0) return true;
+    private static int toSeconds(Timepoint time) {
+        return TimeConstraints.toSeconds(time.getHour(), time.getMinute(), time.getSecond());
+    }
 
-        if(mSelectableTimes != null) return !Arrays.asList(mSelectableTimes).contains(current);
+    private static Timepoint toTimepoint(int seconds) {
+        return new Timepoint(TimeConstraints.getHour(seconds), TimeConstraints.getMinute(seconds),
+                TimeConstraints.getSecond(seconds));
+    }
 
-        return false;
+    public boolean isOutOfRange(Timepoint current) {
+        return mConstraints.isOutOfRange(toSeconds(current));
     }
 
     @Override
     public boolean isOutOfRange(Timepoint current, int index) {
         if(current == null) return false;
 
-        if(index == HOUR_INDEX) {
-            if(mMinTime != null && mMinTime.getHour() > current.getHour()) return true;
-
-            if(mMaxTime != null && mMaxTime.getHour()+1 <= current.getHour()) return true;
-
-            if(mSelectableTimes != null) {
-                for(Timepoint t : mSelectableTimes) {
-                    if(t.getHour() == current.getHour()) return false;
-                }
-                return true;
-            }
-
-            return false;
-        }
-        else if(index == MINUTE_INDEX) {
-            if(mMinTime != null) {
-                Timepoint roundedMin = new Timepoint(mMinTime.getHour(), mMinTime.getMinute());
-                if (roundedMin.compareTo(current) > 0) return true;
-            }
-
-            if(mMaxTime != null) {
-                Timepoint roundedMax = new Timepoint(mMaxTime.getHour(), mMaxTime.getMinute(), 59);
-                if (roundedMax.compareTo(current) < 0) return true;
-            }
-
-            if(mSelectableTimes != null) {
-                for(Timepoint t : mSelectableTimes) {
-                    if(t.getHour() == current.getHour() && t.getMinute() == current.getMinute()) return false;
-                }
-                return true;
-            }
-
-            return false;
-        }
-        else return isOutOfRange(current);
+        return mConstraints.isOutOfRange(toSeconds(current), index);
     }
 
     @Override
     public boolean isAmDisabled() {
-        Timepoint midday = new Timepoint(12);
-
-        if(mMinTime != null && mMinTime.compareTo(midday) > 0) return true;
-
-        if(mSelectableTimes != null) {
-            for(Timepoint t : mSelectableTimes) if(t.compareTo(midday) < 0) return false;
-            return true;
-        }
-
-        return false;
+        return mConstraints.isAmDisabled();
     }
 
     @Override
     public boolean isPmDisabled() {
-        Timepoint midday = new Timepoint(12);
-
-        if(mMaxTime != null && mMaxTime.compareTo(midday) < 0) return true;
-
-        if(mSelectableTimes != null) {
-            for(Timepoint t : mSelectableTimes) if(t.compareTo(midday) >= 0) return false;
-            return true;
-        }
-
-        return false;
+        return mConstraints.isPmDisabled();
     }
 
     /**
@@ -929,27 +910,11 @@ public class TimePickerDialog extends DialogFragment implements
 
     @Override
     public Timepoint roundToNearest(Timepoint time, Timepoint.TYPE type) {
-
-        if(mMinTime != null && mMinTime.compareTo(time) > 0) return mMinTime;
-
-        if(mMaxTime != null && mMaxTime.compareTo(time) < 0) return mMaxTime;
-        if(mSelectableTimes != null) {
-            int currentDistance = Integer.MAX_VALUE;
-            Timepoint output = time;
-            for(Timepoint t : mSelectableTimes) {
-                if(type == Timepoint.TYPE.MINUTE && t.getHour() != time.getHour()) continue;
-                if(type == Timepoint.TYPE.SECOND && t.getHour() != time.getHour() && t.getMinute() != time.getMinute()) continue;
-                int newDistance = Math.abs(t.compareTo(time));
-                if(newDistance < currentDistance) {
-                    currentDistance = newDistance;
-                    output = t;
-                }
-                else break;
-            }
-            return output;
-        }
-
-        return time;
+        final int index = type == Timepoint.TYPE.SECOND ? SECOND_INDEX
+                : type == Timepoint.TYPE.MINUTE ? MINUTE_INDEX : HOUR_INDEX;
+        final int seconds = toSeconds(time);
+        final int rounded = mConstraints.roundToNearest(seconds, index);
+        return rounded == seconds ? time : toTimepoint(rounded);
     }
 
     private void setHour(int value, boolean announce) {
@@ -1165,14 +1130,7 @@ public class TimePickerDialog extends DialogFragment implements
      * or may become legal as more keys are typed (excluding backspace).
      */
     private boolean isTypedTimeLegalSoFar() {
-        Node node = mLegalTimesTree;
-        for (int keyCode : mTypedTimes) {
-            node = node.canReach(keyCode);
-            if (node == null) {
-                return false;
-            }
-        }
-        return true;
+        return mLegalTimesTree.isLegalSoFar(mTypedTimes);
     }
 
     /**
@@ -1400,256 +1358,12 @@ public class TimePickerDialog extends DialogFragment implements
      * Create a tree for deciding what keys can legally be typed.
      */
     private void generateLegalTimesTree() {
-        // Create a quick cache of numbers to their keycodes.
-        int k0 = KeyEvent.KEYCODE_0;
-        int k1 = KeyEvent.KEYCODE_1;
-        int k2 = KeyEvent.KEYCODE_2;
-        int k3 = KeyEvent.KEYCODE_3;
-        int k4 = KeyEvent.KEYCODE_4;
-        int k5 = KeyEvent.KEYCODE_5;
-        int k6 = KeyEvent.KEYCODE_6;
-        int k7 = KeyEvent.KEYCODE_7;
-        int k8 = KeyEvent.KEYCODE_8;
-        int k9 = KeyEvent.KEYCODE_9;
-
-        // The root of the tree doesn't contain any numbers.
-        mLegalTimesTree = new Node();
-
-        // In case we're only allowing hours
-        if (!mEnableMinutes && mIs24HourMode) {
-            // The first digit may be 0-1
-            Node firstDigit = new Node(k0, k1);
-            mLegalTimesTree.addChild(firstDigit);
-
-            // When the first digit is 0-1, the second digit may be 0-9
-            Node secondDigit = new Node(k0, k1, k2, k3, k4, k5, k6, k7, k8, k9);
-            firstDigit.addChild(secondDigit);
-
-            // The first digit may be 2
-            firstDigit = new Node(k2);
-            mLegalTimesTree.addChild(firstDigit);
-
-            // When the first digit is 2, the second digit may be 0-3
-            secondDigit = new Node(k0, k1, k2, k3);
-            firstDigit.addChild(secondDigit);
-            return;
-        }
-        if (!mEnableMinutes && !mIs24HourMode) {
-            // We'll need to use the AM/PM node a lot.
-            // Set up AM and PM to respond to "a" and "p".
-            Node ampm = new Node(getAmOrPmKeyCode(AM), getAmOrPmKeyCode(PM));
-
-            // The first digit may be 1
-            Node firstDigit = new Node(k1);
-            mLegalTimesTree.addChild(firstDigit);
-
-            // If the first digit is 1, the second one may be am/pm 1pm
-            firstDigit.addChild(ampm);
-            // If the first digit is 1, the second digit may be 0-2
-            Node secondDigit = new Node(k0, k1, k2);
-            firstDigit.addChild(secondDigit);
-            secondDigit.addChild(ampm);
-
-            // The first digit may be 2-9
-            firstDigit = new Node(k2, k3, k4, k5, k6, k7, k8, k9);
-            mLegalTimesTree.addChild(firstDigit);
-            firstDigit.addChild(ampm);
-            return;
-        }
-
-        // In case minutes are allowed
-        if (mIs24HourMode) {
-            // We'll be re-using these nodes, so we'll save them.
-            Node minuteFirstDigit = new Node(k0, k1, k2, k3, k4, k5);
-            Node minuteSecondDigit = new Node(k0, k1, k2, k3, k4, k5, k6, k7, k8, k9);
-            // The first digit must be followed by the second digit.
-            minuteFirstDigit.addChild(minuteSecondDigit);
-
-            if (mEnableSeconds) {
-                Node secondsFirstDigit = new Node(k0, k1, k2, k3, k4, k5);
-                Node secondsSecondDigit = new Node(k0, k1, k2, k3, k4, k5, k6, k7, k8, k9);
-                secondsFirstDigit.addChild(secondsSecondDigit);
-
-                // Minutes can be followed by seconds.
-                minuteSecondDigit.addChild(secondsFirstDigit);
-            }
-
-            // The first digit may be 0-1.
-            Node firstDigit = new Node(k0, k1);
-            mLegalTimesTree.addChild(firstDigit);
-
-            // When the first digit is 0-1, the second digit may be 0-5.
-            Node secondDigit = new Node(k0, k1, k2, k3, k4, k5);
-            firstDigit.addChild(secondDigit);
-            // We may now be followed by the first minute digit. E.g. 00:09, 15:58.
-            secondDigit.addChild(minuteFirstDigit);
-
-            // When the first digit is 0-1, and the second digit is 0-5, the third digit may be 6-9.
-            Node thirdDigit = new Node(k6, k7, k8, k9);
-            // The time must now be finished. E.g. 0:55, 1:08.
-            secondDigit.addChild(thirdDigit);
-
-            // When the first digit is 0-1, the second digit may be 6-9.
-            secondDigit = new Node(k6, k7, k8, k9);
-            firstDigit.addChild(secondDigit);
-            // We must now be followed by the first minute digit. E.g. 06:50, 18:20.
-            secondDigit.addChild(minuteFirstDigit);
-
-            // The first digit may be 2.
-            firstDigit = new Node(k2);
-            mLegalTimesTree.addChild(firstDigit);
-
-            // When the first digit is 2, the second digit may be 0-3.
-            secondDigit = new Node(k0, k1, k2, k3);
-            firstDigit.addChild(secondDigit);
-            // We must now be followed by the first minute digit. E.g. 20:50, 23:09.
-            secondDigit.addChild(minuteFirstDigit);
-
-            // When the first digit is 2, the second digit may be 4-5.
-            secondDigit = new Node(k4, k5);
-            firstDigit.addChild(secondDigit);
-            // We must now be followd by the last minute digit. E.g. 2:40, 2:53.
-            secondDigit.addChild(minuteSecondDigit);
-
-            // The first digit may be 3-9.
-            firstDigit = new Node(k3, k4, k5, k6, k7, k8, k9);
-            mLegalTimesTree.addChild(firstDigit);
-            // We must now be followed by the first minute digit. E.g. 3:57, 8:12.
-            firstDigit.addChild(minuteFirstDigit);
-        } else {
-            // We'll need to use the AM/PM node a lot.
-            // Set up AM and PM to respond to "a" and "p".
-            Node ampm = new Node(getAmOrPmKeyCode(AM), getAmOrPmKeyCode(PM));
-
-            // Seconds will be used a few times as well, if enabled.
-            Node secondsFirstDigit = new Node(k0, k1, k2, k3, k4, k5);
-            Node secondsSecondDigit = new Node(k0, k1, k2, k3, k4, k5, k6, k7, k8, k9);
-            secondsSecondDigit.addChild(ampm);
-            secondsFirstDigit.addChild(secondsSecondDigit);
-
-            // The first hour digit may be 1.
-            Node firstDigit = new Node(k1);
-            mLegalTimesTree.addChild(firstDigit);
-            // We'll allow quick input of on-the-hour times. E.g. 1pm.
-            firstDigit.addChild(ampm);
-
-            // When the first digit is 1, the second digit may be 0-2.
-            Node secondDigit = new Node(k0, k1, k2);
-            firstDigit.addChild(secondDigit);
-            // Also for quick input of on-the-hour times. E.g. 10pm, 12am.
-            secondDigit.addChild(ampm);
-
-            // When the first digit is 1, and the second digit is 0-2, the third digit may be 0-5.
-            Node thirdDigit = new Node(k0, k1, k2, k3, k4, k5);
-            secondDigit.addChild(thirdDigit);
-            // The time may be finished now. E.g. 1:02pm, 1:25am.
-            thirdDigit.addChild(ampm);
-
-            // When the first digit is 1, the second digit is 0-2, and the third digit is 0-5,
-            // the fourth digit may be 0-9.
-            Node fourthDigit = new Node(k0, k1, k2, k3, k4, k5, k6, k7, k8, k9);
-            thirdDigit.addChild(fourthDigit);
-            // The time must be finished now, when seconds are disabled. E.g. 10:49am, 12:40pm.
-            fourthDigit.addChild(ampm);
-
-            // When the first digit is 1, the second digit is 0-2, and the third digit is 0-5,
-            // and fourth digit is 0-9, we may add seconds if enabled.
-            if (mEnableSeconds) {
-                // The time must be finished now. E.g. 10:49:01am, 12:40:59pm.
-                fourthDigit.addChild(secondsFirstDigit);
-            }
-
-            // When the first digit is 1, and the second digit is 0-2, the third digit may be 6-9.
-            thirdDigit = new Node(k6, k7, k8, k9);
-            secondDigit.addChild(thirdDigit);
-            // The time must be finished now. E.g. 1:08am, 1:26pm.
-            thirdDigit.addChild(ampm);
-
-            // When the first digit is 1, and the second digit is 0-2, and the third digit is 6-9,
-            // we may add seconds is enabled.
-            if (mEnableSeconds) {
-                // The time must be finished now. E.g. 1:08:01am, 1:26:59pm.
-                thirdDigit.addChild(secondsFirstDigit);
-            }
-
-            // When the first digit is 1, the second digit may be 3-5.
-            secondDigit = new Node(k3, k4, k5);
-            firstDigit.addChild(secondDigit);
-
-            // When the first digit is 1, and the second digit is 3-5, the third digit may be 0-9.
-            thirdDigit = new Node(k0, k1, k2, k3, k4, k5, k6, k7, k8, k9);
-            secondDigit.addChild(thirdDigit);
-            // The time must be finished now if seconds are disabled. E.g. 1:39am, 1:50pm.
-            thirdDigit.addChild(ampm);
-
-            // When the first digit is 1, and the second digit is 3-5, and the third digit is 0-9,
-            // we may add seconds if enabled.
-            if (mEnableSeconds) {
-                // The time must be finished now. E.g. 1:39:01am, 1:50:59pm.
-                thirdDigit.addChild(secondsFirstDigit);
-            }
-
-            // The hour digit may be 2-9.
-            firstDigit = new Node(k2, k3, k4, k5, k6, k7, k8, k9);
-            mLegalTimesTree.addChild(firstDigit);
-            // We'll allow quick input of on-the-hour-times. E.g. 2am, 5pm.
-            firstDigit.addChild(ampm);
-
-            // When the first digit is 2-9, the second digit may be 0-5.
-            secondDigit = new Node(k0, k1, k2, k3, k4, k5);
-            firstDigit.addChild(secondDigit);
-
-            // When the first digit is 2-9, and the second digit is 0-5, the third digit may be 0-9.
-            thirdDigit = new Node(k0, k1, k2, k3, k4, k5, k6, k7, k8, k9);
-            secondDigit.addChild(thirdDigit);
-            // The time must be finished now. E.g. 2:57am, 9:30pm.
-            thirdDigit.addChild(ampm);
-
-            // When the first digit is 2-9, and the second digit is 0-5, and third digit is 0-9, we
-            // may add seconds if enabled.
-            if (mEnableSeconds) {
-                // The time must be finished now. E.g. 2:57:01am, 9:30:59pm.
-                thirdDigit.addChild(secondsFirstDigit);
-            }
-        }
-    }
-
-    /**
-     * Simple node class to be used for traversal to check for legal times.
-     * mLegalKeys represents the keys that can be typed to get to the node.
-     * mChildren are the children that can be reached from this node.
-     */
-    private static class Node {
-        private int[] mLegalKeys;
-        private ArrayList<Node> mChildren;
-
-        public Node(int... legalKeys) {
-            mLegalKeys = legalKeys;
-            mChildren = new ArrayList<>();
-        }
-
-        public void addChild(Node child) {
-            mChildren.add(child);
-        }
-
-        public boolean containsKey(int key) {
-            for (int legalKey : mLegalKeys) {
-                if (legalKey == key) return true;
-            }
-            return false;
-        }
-
-        public Node canReach(int key) {
-            if (mChildren == null) {
-                return null;
-            }
-            for (Node child : mChildren) {
-                if (child.containsKey(key)) {
-                    return child;
-                }
-            }
-            return null;
-        }
+        final int[] digitKeys = {
+                KeyEvent.KEYCODE_0, KeyEvent.KEYCODE_1, KeyEvent.KEYCODE_2, KeyEvent.KEYCODE_3,
+                KeyEvent.KEYCODE_4, KeyEvent.KEYCODE_5, KeyEvent.KEYCODE_6, KeyEvent.KEYCODE_7,
+                KeyEvent.KEYCODE_8, KeyEvent.KEYCODE_9};
+        mLegalTimesTree = new LegalTimesTree(mIs24HourMode, mEnableMinutes, mEnableSeconds,
+                digitKeys, getAmOrPmKeyCode(AM), getAmOrPmKeyCode(PM));
     }
 
     private class KeyboardListener implements OnKeyListener {
@@ -0,0 +1,176 @@
+package com.kenmeidearu.datetimepickerexample;
+
+import android.app.Instrumentation;
+import android.os.SystemClock;
+import android.test.ActivityInstrumentationTestCase2;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.kenmeidearu.materialdatetimepicker.PickerMetrics;
+import com.kenmeidearu.materialdatetimepicker.PickerMetricsListener;
+import com.kenmeidearu.materialdatetimepicker.date.DatePickerDialog;
+import com.kenmeidearu.materialdatetimepicker.date.DayPickerView;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Locale;
+
+/**
+ * Measures the date picker in the sample app with the {@link PickerMetricsListener} of the dialog.
+ * The results are only logged with the tag {@value #TAG}, run it on a real device with
+ * ./gradlew :sample:connectedAndroidTest and compare the numbers between builds.
+ */
+public class DatePickerBenchmark extends ActivityInstrumentationTestCase2<MainActivity> {
+    private static final String TAG = "DatePickerBenchmark";
+    private static final String DIALOG_TAG = "Benchmarkdialog";
+
+    private static final int OPENS = 15;
+    private static final int FLINGS = 12;
+    private static final int FLING_DURATION = 400;
+    // The distance of a fling in heights of the list, which shows about one month
+    private static final int FLING_MONTHS = 3;
+
+    public DatePickerBenchmark() {
+        super(MainActivity.class);
+    }
+
+    /**
+     * Opens the dialog a number of times and reports the median time to its first frame, see
+     * {@link PickerMetricsListener#onFirstFrame(long)}. The first opening also loads classes and
+     * resources, so it is reported on its own.
+     */
+    public void testFirstFrame() throws Throwable {
+        final long[] durations = new long[OPENS];
+        for (int i = 0; i < OPENS; i++) {
+            final Metrics metrics = new Metrics();
+            DatePickerDialog dialog = show(metrics, false);
+            dismiss(dialog);
+            assertTrue("The first frame was not reported", metrics.mFirstFrameNanos > 0);
+            durations[i] = metrics.mFirstFrameNanos;
+        }
+        final long cold = durations[0];
+        final long[] warm = Arrays.copyOfRange(durations, 1, OPENS);
+        Arrays.sort(warm);
+
+        Log.i(TAG, String.format(Locale.US, "First frame, first opening: %.2f ms", cold / 1e6));
+        Log.i(TAG, String.format(Locale.US, "First frame, median of %d openings: %.2f ms, min %.2f ms, max %.2f ms",
+                warm.length, warm[warm.length / 2] / 1e6, warm[0] / 1e6, warm[warm.length - 1] / 1e6));
+    }
+
+    /**
+     * Compares the frames slower than {@link PickerMetrics#SLOW_FRAME_NANOS} while flinging
+     * through the months, drawn live and pre-rendered by setPreRenderMonths(true)
+     */
+    public void testFlingFrames() throws Throwable {
+        final Metrics live = measureFlings(false);
+        final Metrics preRendered = measureFlings(true);
+
+        Log.i(TAG, String.format(Locale.US, "Fling, live: %d of %d frames slow (%.1f%%)",
+                live.mSlowFrames, live.mFrames, live.slowFramePercentage()));
+        Log.i(TAG, String.format(Locale.US, "Fling, pre-rendered: %d of %d frames slow (%.1f%%)",
+                preRendered.mSlowFrames, preRendered.mFrames, preRendered.slowFramePercentage()));
+        assertTrue("No frames were counted", live.mFrames > 0 && preRendered.mFrames > 0);
+    }
+
+    private Metrics measureFlings(final boolean preRender) throws Throwable {
+        final Metrics metrics = new Metrics();
+        final DatePickerDialog dialog = show(metrics, preRender);
+        final Instrumentation instrumentation = getInstrumentation();
+
+        final DayPickerView dayPickerView = findDayPickerView(dialog.getDialog().getWindow().getDecorView());
+        assertNotNull("The month list is not shown", dayPickerView);
+        for (int i = 0; i < FLINGS; i++) {
+            // Back and forth, so both directions are measured over the same months
+            final int direction = i % 2 == 0 ? -1 : 1;
+            runTestOnUiThread(new Runnable() {
+                @Override
+                public void run() {
+                    dayPickerView.smoothScrollBy(direction * FLING_MONTHS * dayPickerView.getHeight(),
+                            FLING_DURATION);
+                }
+            });
+            SystemClock.sleep(FLING_DURATION * 2);
+            instrumentation.waitForIdleSync();
+        }
+
+        dismiss(dialog);
+        return metrics;
+    }
+
+    private DatePickerDialog show(final Metrics metrics, final boolean preRender) throws Throwable {
+        final DatePickerDialog[] dialog = new DatePickerDialog[1];
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                Calendar now = Calendar.getInstance();
+                dialog[0] = DatePickerDialog.newInstance(null, now.get(Calendar.YEAR),
+                        now.get(Calendar.MONTH), now.get(Calendar.DAY_OF_MONTH),
+                        now.get(Calendar.HOUR_OF_DAY), now.get(Calendar.MINUTE), true);
+                dialog[0].setMetricsListener(metrics);
+                dialog[0].setPreRenderMonths(preRender);
+                dialog[0].show(getActivity().getFragmentManager(), DIALOG_TAG);
+            }
+        });
+        getInstrumentation().waitForIdleSync();
+        return dialog[0];
+    }
+
+    private void dismiss(final DatePickerDialog dialog) throws Throwable {
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                dialog.dismiss();
+            }
+        });
+        getInstrumentation().waitForIdleSync();
+    }
+
+    private static DayPickerView findDayPickerView(View view) {
+        if (view instanceof DayPickerView) return (DayPickerView) view;
+        if (!(view instanceof ViewGroup)) return null;
+        ViewGroup group = (ViewGroup) view;
+        for (int i = 0; i < group.getChildCount(); i++) {
+            DayPickerView dayPickerView = findDayPickerView(group.getChildAt(i));
+            if (dayPickerView != null) return dayPickerView;
+        }
+        return null;
+    }
+
+    /**
+     * Keeps the measurements of one dialog. The callbacks are made on the main thread and only
+     * read after waiting for it to be idle.
+     */
+    private static class Metrics implements PickerMetricsListener {
+        volatile long mFirstFrameNanos;
+        volatile int mSlowFrames;
+        volatile int mFrames;
+
+        float slowFramePercentage() {
+            return mFrames == 0 ? 0 : 100f * mSlowFrames / mFrames;
+        }
+
+        @Override
+        public void onFirstFrame(long durationNanos) {
+            mFirstFrameNanos = durationNanos;
+        }
+
+        @Override
+        public void onMonthBound(long durationNanos) {
+        }
+
+        @Override
+        public void onMonthDrawn(long durationNanos) {
+        }
+
+        @Override
+        public void onTouchToRedraw(long latencyNanos) {
+        }
+
+        @Override
+        public void onSlowFrames(int slowFrames, int totalFrames) {
+            mSlowFrames += slowFrames;
+            mFrames += totalFrames;
+        }
+    }
+}